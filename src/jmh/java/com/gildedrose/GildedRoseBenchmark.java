@@ -0,0 +1,161 @@
+package com.gildedrose;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks do motor de atualização.
+ *
+ * Cada operação é um dia simulado sobre o inventário inteiro. O contador
+ * auxiliar {@code items} mede itens por segundo (o inverso da latência por
+ * item) e a taxa de alocação vem do profiler "gc", ligado por padrão nos
+ * builds Maven e Gradle, que gravam o resultado em JSON.
+ *
+ * Mixes de nomes:
+ * • program: os nove itens de Program.main repetidos em ciclo
+ * • catalog: maioria de itens comuns com nomes variados, mais Aged Brie,
+ *   Sulfuras, Backstage passes e Conjured em proporções menores
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+public class GildedRoseBenchmark {
+
+    private static final Item[] PROGRAM_ITEMS = {
+        new Item("+5 Dexterity Vest", 10, 20),
+        new Item("Aged Brie", 2, 0),
+        new Item("Elixir of the Mongoose", 5, 7),
+        new Item("Sulfuras, Hand of Ragnaros", 0, 80),
+        new Item("Sulfuras, Hand of Ragnaros", -1, 80),
+        new Item("Backstage passes to a TAFKAL80ETC concert", 15, 20),
+        new Item("Backstage passes to a TAFKAL80ETC concert", 10, 49),
+        new Item("Backstage passes to a TAFKAL80ETC concert", 5, 49),
+        new Item("Conjured Mana Cake", 3, 6)
+    };
+
+    @Param({"1000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"program", "catalog"})
+    public String mix;
+
+    private Item[] items;
+    private GildedRose rose;
+    private GildedRose compiledRose;
+    private ColumnarInventory columns;
+
+    /**
+     * O estado é recriado a cada iteração para que os itens não fiquem presos
+     * em pontos fixos (qualidade 0 ou 50) ao longo da medição.
+     */
+    @Setup(Level.Iteration)
+    public void createInventory() {
+        items = "program".equals(mix) ? programMix(size) : catalogMix(size);
+        rose = new GildedRose(items);
+        compiledRose = new GildedRose(copyOf(items), compiledRegistry());
+        columns = ColumnarInventory.fromItems(items);
+    }
+
+    @Benchmark
+    public void updateQuality(ItemCounter counter) {
+        rose.updateQuality();
+        counter.items += size;
+    }
+
+    @Benchmark
+    public void columnarUpdateQuality(ItemCounter counter) {
+        columns.updateQuality();
+        counter.items += size;
+    }
+
+    /**
+     * Mesmo inventário, mas com Aged Brie, Sulfuras, Conjured e itens comuns
+     * vindos de regras compiladas pelo RuleCompiler em vez das classes
+     * escritas à mão.
+     */
+    @Benchmark
+    public void compiledRulesUpdateQuality(ItemCounter counter) {
+        compiledRose.updateQuality();
+        counter.items += size;
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class ItemCounter {
+        public long items;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            items = 0;
+        }
+    }
+
+    private static UpdaterRegistry compiledRegistry() {
+        UpdaterRegistry registry = new UpdaterRegistry();
+        RuleCompiler.registerAll("""
+                exact "Aged Brie" delta=1
+                exact "Sulfuras, Hand of Ragnaros" delta=0 sellInStep=0
+                """, registry);
+        registry.registerExact("Backstage passes to a TAFKAL80ETC concert", new BackstagePassUpdater());
+        RuleCompiler.registerAll("prefix \"Conjured\" delta=-2", registry);
+        registry.registerFallback(RuleCompiler.compile(ItemRule.parse("prefix \"\"")));
+        return registry;
+    }
+
+    private static Item[] copyOf(Item[] items) {
+        Item[] copy = new Item[items.length];
+        for (int i = 0; i < items.length; i++) {
+            copy[i] = new Item(items[i].name, items[i].sellIn, items[i].quality);
+        }
+        return copy;
+    }
+
+    private static Item[] programMix(int size) {
+        Item[] result = new Item[size];
+        for (int i = 0; i < size; i++) {
+            Item template = PROGRAM_ITEMS[i % PROGRAM_ITEMS.length];
+            result[i] = new Item(template.name, template.sellIn, template.quality);
+        }
+        return result;
+    }
+
+    private static Item[] catalogMix(int size) {
+        Random random = new Random(42);
+        Item[] result = new Item[size];
+        for (int i = 0; i < size; i++) {
+            int roll = random.nextInt(100);
+            String name;
+            if (roll < 10) {
+                name = "Aged Brie";
+            } else if (roll < 15) {
+                name = "Sulfuras, Hand of Ragnaros";
+            } else if (roll < 25) {
+                name = "Backstage passes to a TAFKAL80ETC concert";
+            } else if (roll < 30) {
+                name = "Conjured Item #" + random.nextInt(500);
+            } else {
+                name = "Common Item #" + random.nextInt(5_000);
+            }
+            int quality = name.startsWith("Sulfuras") ? 80 : random.nextInt(51);
+            result[i] = new Item(name, random.nextInt(60) - 10, quality);
+        }
+        return result;
+    }
+}
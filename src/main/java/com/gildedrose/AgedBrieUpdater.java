@@ -30,10 +30,56 @@ class AgedBrieUpdater implements ItemUpdater {
         }
     }
 
+    @Override
+    public void updateAll(Item[] items, int[] indices, int from, int to) {
+        for (int i = from; i < to; i++) {
+            update(items[indices[i]]);
+        }
+    }
+
+    @Override
+    public int updatedQuality(int sellIn, int quality) {
+        quality = increaseQuality(quality);
+
+        if (updatedSellIn(sellIn) < 0) {
+            quality = increaseQuality(quality);
+        }
+        return quality;
+    }
+
+    @Override
+    public int updatedSellIn(int sellIn) {
+        return sellIn - 1;
+    }
+
+    @Override
+    public boolean isSettled(int sellIn, int quality) {
+        return quality >= 50;
+    }
+
+    @Override
+    public int advancedQuality(int sellIn, int quality, int days) {
+        if (quality >= 50) {
+            return quality;
+        }
+        long freshDays = Math.max(0, Math.min(days, sellIn));
+        long increase = freshDays + 2 * (days - freshDays);
+        return (int) Math.min(50, quality + increase);
+    }
+
+    @Override
+    public int advancedSellIn(int sellIn, int days) {
+        return sellIn - days;
+    }
+
     private void increaseQuality(Item item) {
         if (item.quality < 50) {
             item.quality = item.quality + 1;
         }
     }
+
+    private int increaseQuality(int quality) {
+        return quality < 50 ? quality + 1 : quality;
+    }
 }
 
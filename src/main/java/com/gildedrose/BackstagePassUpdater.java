@@ -20,9 +20,75 @@ class BackstagePassUpdater implements ItemUpdater {
         }
     }
 
+    @Override
+    public void updateAll(Item[] items, int[] indices, int from, int to) {
+        for (int i = from; i < to; i++) {
+            update(items[indices[i]]);
+        }
+    }
+
+    @Override
+    public int updatedQuality(int sellIn, int quality) {
+        quality = increaseQuality(quality);
+
+        if (sellIn < 11) {
+            quality = increaseQuality(quality);
+        }
+
+        if (sellIn < 6) {
+            quality = increaseQuality(quality);
+        }
+
+        if (updatedSellIn(sellIn) < 0) {
+            quality = 0;
+        }
+        return quality;
+    }
+
+    @Override
+    public int updatedSellIn(int sellIn) {
+        return sellIn - 1;
+    }
+
+    @Override
+    public boolean isSettled(int sellIn, int quality) {
+        // Depois do show a qualidade é zerada todos os dias
+        return sellIn < 0 && quality == 0;
+    }
+
+    @Override
+    public int advancedQuality(int sellIn, int quality, int days) {
+        if (days == 0) {
+            return quality;
+        }
+        // sellIn no início do último dia; se o show já passou, a qualidade zera
+        long lastSellIn = (long) sellIn - days + 1;
+        if (lastSellIn < 1) {
+            return 0;
+        }
+        if (quality >= 50) {
+            return quality;
+        }
+        long increase = days + daysBelow(11, sellIn, lastSellIn) + daysBelow(6, sellIn, lastSellIn);
+        return (int) Math.min(50, quality + increase);
+    }
+
+    @Override
+    public int advancedSellIn(int sellIn, int days) {
+        return sellIn - days;
+    }
+
+    private static long daysBelow(int limit, long firstSellIn, long lastSellIn) {
+        return Math.max(0, Math.min(firstSellIn, limit - 1) - lastSellIn + 1);
+    }
+
     private void increaseQuality(Item item) {
         if (item.quality < 50) {
             item.quality = item.quality + 1;
         }
     }
+
+    private int increaseQuality(int quality) {
+        return quality < 50 ? quality + 1 : quality;
+    }
 }
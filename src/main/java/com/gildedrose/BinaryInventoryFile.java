@@ -0,0 +1,343 @@
+package com.gildedrose;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inventário em arquivo binário de registros de largura fixa, mapeado em
+ * memória e atualizado no próprio arquivo.
+ *
+ * FORMATO (big-endian):
+ * • cabeçalho (32 bytes): magic, versão, número de registros (long),
+ *   posição do dicionário (long), número de nomes e 4 bytes de preenchimento
+ * • registros (12 bytes cada): id do nome, sellIn e quality, todos int
+ * • dicionário: cada nome distinto uma única vez, como UTF-8 com tamanho
+ *
+ * O dicionário fica depois dos registros para que a conversão a partir do
+ * texto seja feita em uma única passada. A conversão grava em um arquivo
+ * temporário ao lado do destino e só o move para o lugar quando termina: se
+ * falhar no meio, o destino fica como estava. updateQuality() e advance()
+ * leem e escrevem os inteiros direto nos buffers mapeados, sem criar objetos
+ * Item.
+ */
+final class BinaryInventoryFile implements Closeable {
+    static final int MAGIC = 0x4752494E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 12;
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long recordCount;
+    private final ItemNameDictionary names;
+    private final ItemUpdater[] updaterByName;
+
+    private BinaryInventoryFile(FileChannel channel, MappedByteBuffer[] segments, long recordCount,
+                                ItemNameDictionary names, ItemUpdater[] updaterByName) {
+        this.channel = channel;
+        this.segments = segments;
+        this.recordCount = recordCount;
+        this.names = names;
+        this.updaterByName = updaterByName;
+    }
+
+    static BinaryInventoryFile open(Path file) throws IOException {
+        return open(file, UpdaterRegistry.withDefaults());
+    }
+
+    static BinaryInventoryFile open(Path file, UpdaterRegistry registry) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a binary inventory file: " + file);
+            }
+            long recordCount = header.getLong();
+            long dictionaryOffset = header.getLong();
+            int nameCount = header.getInt();
+            // Um cabeçalho corrompido não pode mapear além do fim do arquivo:
+            // em READ_WRITE o mapeamento aumentaria o arquivo em silêncio
+            long fileSize = channel.size();
+            if (recordCount < 0 || recordCount > (fileSize - HEADER_SIZE) / RECORD_SIZE
+                    || dictionaryOffset != HEADER_SIZE + recordCount * RECORD_SIZE
+                    || nameCount < 0 || dictionaryOffset > fileSize) {
+                throw new IOException("Corrupt binary inventory header: " + file);
+            }
+
+            ItemNameDictionary names = readDictionary(channel, dictionaryOffset, nameCount, registry);
+            ItemUpdater[] updaterByName = new ItemUpdater[nameCount];
+            for (int id = 0; id < nameCount; id++) {
+                updaterByName[id] = names.updaterFor(id);
+            }
+
+            int segmentCount = (int) ((recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                long first = (long) s * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, recordCount - first);
+                segments[s] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+            }
+            checkNameIds(segments, nameCount, file);
+            return new BinaryInventoryFile(channel, segments, recordCount, names, updaterByName);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Converte o texto impresso por Program ("name, sellIn, quality" por
+     * linha) para o formato binário, lendo a entrada uma única vez. As
+     * linhas de relatório (saudação, cabeçalhos, linhas em branco) são
+     * ignoradas.
+     *
+     * @return número de registros gravados
+     */
+    static long fromText(Path text, Path binary) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(text, StandardCharsets.UTF_8);
+             RecordWriter writer = new RecordWriter(binary)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!ItemLineFormat.isReportLine(line)) {
+                    writer.add(ItemLineFormat.parse(line));
+                }
+            }
+            writer.commit();
+            return writer.count;
+        }
+    }
+
+    static void write(Item[] items, Path binary) throws IOException {
+        try (RecordWriter writer = new RecordWriter(binary)) {
+            for (Item item : items) {
+                writer.add(item);
+            }
+            writer.commit();
+        }
+    }
+
+    static void toText(Path binary, Path text) throws IOException {
+        try (BinaryInventoryFile inventory = open(binary);
+             BufferedWriter writer = Files.newBufferedWriter(text, StandardCharsets.UTF_8)) {
+            for (long i = 0; i < inventory.size(); i++) {
+                writer.write(inventory.name(i));
+                writer.write(", ");
+                writer.write(Integer.toString(inventory.sellIn(i)));
+                writer.write(", ");
+                writer.write(Integer.toString(inventory.quality(i)));
+                writer.write('\n');
+            }
+        }
+    }
+
+    public void updateQuality() {
+        for (MappedByteBuffer segment : segments) {
+            int end = segment.capacity();
+            for (int offset = 0; offset < end; offset += RECORD_SIZE) {
+                ItemUpdater updater = updaterByName[segment.getInt(offset)];
+                int sellIn = segment.getInt(offset + 4);
+                segment.putInt(offset + 8, updater.updatedQuality(sellIn, segment.getInt(offset + 8)));
+                segment.putInt(offset + 4, updater.updatedSellIn(sellIn));
+            }
+        }
+    }
+
+    public void advance(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        for (MappedByteBuffer segment : segments) {
+            int end = segment.capacity();
+            for (int offset = 0; offset < end; offset += RECORD_SIZE) {
+                ItemUpdater updater = updaterByName[segment.getInt(offset)];
+                int sellIn = segment.getInt(offset + 4);
+                segment.putInt(offset + 8, updater.advancedQuality(sellIn, segment.getInt(offset + 8), days));
+                segment.putInt(offset + 4, updater.advancedSellIn(sellIn, days));
+            }
+        }
+    }
+
+    public long size() {
+        return recordCount;
+    }
+
+    public String name(long index) {
+        return names.name(segment(index).getInt(offset(index)));
+    }
+
+    public int sellIn(long index) {
+        return segment(index).getInt(offset(index) + 4);
+    }
+
+    public int quality(long index) {
+        return segment(index).getInt(offset(index) + 8);
+    }
+
+    /**
+     * Força a gravação em disco das alterações feitas nos buffers mapeados.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(long index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount);
+        }
+        return segments[(int) (index / RECORDS_PER_SEGMENT)];
+    }
+
+    private static int offset(long index) {
+        return (int) (index % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+
+    /**
+     * Verifica uma vez, na abertura, que todo registro aponta para um nome do
+     * dicionário; assim os laços de atualização não precisam checar.
+     */
+    private static void checkNameIds(MappedByteBuffer[] segments, int nameCount, Path file) throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            int end = segment.capacity();
+            for (int offset = 0; offset < end; offset += RECORD_SIZE) {
+                int id = segment.getInt(offset);
+                if (id < 0 || id >= nameCount) {
+                    throw new IOException("Corrupt binary inventory record: name id " + id + " of "
+                            + nameCount + " in " + file);
+                }
+            }
+        }
+    }
+
+    private static ItemNameDictionary readDictionary(FileChannel channel, long offset, int nameCount,
+                                                     UpdaterRegistry registry) throws IOException {
+        InputStream stream = Channels.newInputStream(channel.position(offset));
+        DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+        ItemNameDictionary names = new ItemNameDictionary(registry);
+        long remaining = channel.size() - offset;
+        for (int id = 0; id < nameCount; id++) {
+            int length = input.readInt();
+            remaining -= 4;
+            if (length < 0 || length > remaining) {
+                throw new IOException("Corrupt binary inventory dictionary: name length " + length);
+            }
+            remaining -= length;
+            byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            if (names.intern(new String(bytes, StandardCharsets.UTF_8)) != id) {
+                throw new IOException("Duplicate name in binary inventory dictionary");
+            }
+        }
+        return names;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of binary inventory file");
+            }
+        }
+    }
+
+    /**
+     * Grava registros em sequência em um arquivo temporário. commit()
+     * acrescenta o dicionário de nomes, preenche o cabeçalho e move o arquivo
+     * para o destino; close() sem commit() apaga o temporário.
+     */
+    private static final class RecordWriter implements Closeable {
+        private final Path file;
+        private final Path temporary;
+        private final DataOutputStream output;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private long count;
+        private boolean committed;
+
+        RecordWriter(Path file) throws IOException {
+            this.file = file;
+            this.temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)));
+            output.write(new byte[HEADER_SIZE]);
+        }
+
+        void add(Item item) throws IOException {
+            if (item.name == null) {
+                throw new IllegalArgumentException("Item name must not be null");
+            }
+            Integer id = ids.get(item.name);
+            if (id == null) {
+                id = names.size();
+                ids.put(item.name, id);
+                names.add(item.name);
+            }
+            output.writeInt(id);
+            output.writeInt(item.sellIn);
+            output.writeInt(item.quality);
+            count++;
+        }
+
+        void commit() throws IOException {
+            long dictionaryOffset = HEADER_SIZE + count * RECORD_SIZE;
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+            output.close();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(count).putLong(dictionaryOffset).putInt(names.size());
+            header.rewind();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                try {
+                    output.close();
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.gildedrose;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feed de alterações de uma GildedRose: para cada item cuja qualidade mudou,
+ * um registro (índice, sellIn antigo/novo, quality antiga/nova).
+ *
+ * É um ring buffer de um produtor (a thread que chama updateQuality) e um
+ * consumidor (quem replica o inventário). Os registros ficam em um único
+ * int[], cinco ints por registro, sem objetos por alteração.
+ *
+ * LOTES: cada execução (updateQuality, updateQualityByCategory, advance)
+ * termina com um marcador de fim de lote numerado, entregue ao BatchListener
+ * de drain. Se o buffer encher no meio de uma execução, o que já foi escrito
+ * é publicado antes do marcador para liberar espaço; quem precisa aplicar um
+ * dia de uma vez junta os registros até o batchEnd.
+ *
+ * TRANSBORDO: o produtor espera no máximo {@code maxWait} por espaço (por
+ * padrão, nada). Se o consumidor não liberar espaço a tempo (ou não existir,
+ * ou for a própria thread produtora), o feed passa a descartar registros,
+ * inclusive os marcadores, e resyncRequired() fica verdadeiro; updateQuality
+ * nunca fica preso. Os contadores startedBatches()/completedBatches()
+ * continuam andando. Para retomar, o consumidor lê completedBatches() sem
+ * execução em andamento (os dois contadores iguais), copia o inventário e
+ * chama resume com esse número: se nenhuma execução começou durante a
+ * cópia, a gravação volta a partir da execução seguinte.
+ */
+final class ChangeFeed {
+    private static final int FIELDS = 5;
+    private static final int BATCH_END = -1;
+
+    /**
+     * Recebe um registro do feed; chamado na thread que chama drain().
+     */
+    @FunctionalInterface
+    interface ChangeConsumer {
+        void accept(int index, int oldSellIn, int newSellIn, int oldQuality, int newQuality);
+    }
+
+    /**
+     * Recebe o fim de cada lote; {@code batch} conta a partir de 1.
+     */
+    @FunctionalInterface
+    interface BatchListener {
+        void batchEnd(long batch);
+    }
+
+    private final int[] slots;
+    private final int mask;
+    private final long maxWaitNanos;
+    private volatile long head;
+    private volatile long tail;
+    private volatile boolean overflowed;
+    private volatile long resumeAt = -1;
+    private volatile long started;
+    private volatile long completed;
+    private long pending;
+    private long cachedHead;
+    private boolean inBatch;
+
+    /**
+     * Feed que transborda assim que o buffer enche, sem esperar pelo
+     * consumidor.
+     *
+     * @param capacity número de registros, arredondado para potência de 2
+     */
+    ChangeFeed(int capacity) {
+        this(capacity, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param capacity número de registros, arredondado para potência de 2
+     * @param maxWait  quanto o produtor espera por espaço; 0 transborda assim
+     *                 que o buffer enche
+     */
+    ChangeFeed(int capacity, long maxWait, TimeUnit unit) {
+        if (capacity < 1 || capacity > (1 << 26)) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("Wait must not be negative: " + maxWait);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new int[size * FIELDS];
+        this.mask = size - 1;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    int drain(ChangeConsumer consumer) {
+        return drain(consumer, batch -> { });
+    }
+
+    /**
+     * Lê e consome os registros publicados até agora, avisando
+     * {@code batches} a cada fim de lote.
+     *
+     * @return quantos registros de alteração foram entregues
+     */
+    int drain(ChangeConsumer consumer, BatchListener batches) {
+        long from = head;
+        long to = tail;
+        int changes = 0;
+        for (long sequence = from; sequence < to; sequence++) {
+            int at = (int) (sequence & mask) * FIELDS;
+            if (slots[at] == BATCH_END) {
+                batches.batchEnd((long) slots[at + 1] << 32 | (slots[at + 2] & 0xFFFFFFFFL));
+            } else {
+                consumer.accept(slots[at], slots[at + 1], slots[at + 2], slots[at + 3], slots[at + 4]);
+                changes++;
+            }
+        }
+        head = to;
+        return changes;
+    }
+
+    /**
+     * Entradas publicadas e ainda não consumidas, contando os marcadores de
+     * fim de lote.
+     */
+    int available() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * Verdadeiro depois que o produtor descartou registros por falta de
+     * espaço: o que o consumidor aplicou não basta para reproduzir o
+     * inventário.
+     */
+    boolean resyncRequired() {
+        return overflowed;
+    }
+
+    /**
+     * Execuções iniciadas; difere de completedBatches() enquanto uma
+     * execução está em andamento.
+     */
+    long startedBatches() {
+        return started;
+    }
+
+    /**
+     * Execuções terminadas, com ou sem registros gravados.
+     */
+    long completedBatches() {
+        return completed;
+    }
+
+    /**
+     * Chamado pelo consumidor depois de copiar o inventário inteiro no estado
+     * do fim do lote {@code batch}; o produtor volta a gravar na execução
+     * seguinte.
+     *
+     * @return false se alguma execução começou depois de {@code batch}: a
+     *         cópia pode ter pego um dia pela metade e deve ser refeita
+     */
+    boolean resume(long batch) {
+        // As leituras da cópia não podem passar para depois da verificação
+        VarHandle.acquireFence();
+        if (started != batch || completed != batch) {
+            return false;
+        }
+        if (overflowed) {
+            resumeAt = batch;
+        }
+        return true;
+    }
+
+    void record(int index, int oldSellIn, int newSellIn, int oldQuality, int newQuality) {
+        if (!inBatch) {
+            startBatch();
+        }
+        if (overflowed || !reserve()) {
+            return;
+        }
+        int at = (int) (pending & mask) * FIELDS;
+        slots[at] = index;
+        slots[at + 1] = oldSellIn;
+        slots[at + 2] = newSellIn;
+        slots[at + 3] = oldQuality;
+        slots[at + 4] = newQuality;
+        pending++;
+    }
+
+    /**
+     * Fecha o lote da execução atual: grava o marcador de fim de lote e
+     * torna visível ao consumidor tudo o que foi escrito.
+     */
+    void publish() {
+        if (!inBatch) {
+            startBatch();
+        }
+        inBatch = false;
+        long batch = started;
+        if (!overflowed && reserve()) {
+            int at = (int) (pending & mask) * FIELDS;
+            slots[at] = BATCH_END;
+            slots[at + 1] = (int) (batch >>> 32);
+            slots[at + 2] = (int) batch;
+            pending++;
+            tail = pending;
+        }
+        completed = batch;
+    }
+
+    private void startBatch() {
+        inBatch = true;
+        if (overflowed && resumeAt == completed) {
+            overflowed = false;
+        }
+        resumeAt = -1;
+        started = completed + 1;
+    }
+
+    /**
+     * Garante uma entrada livre, esperando o consumidor até o limite.
+     *
+     * @return false se o feed transbordou
+     */
+    private boolean reserve() {
+        if (pending - cachedHead <= mask) {
+            return true;
+        }
+        // O consumidor só vê o que foi publicado: sem isso ele não liberaria nada
+        tail = pending;
+        long deadline = System.nanoTime() + maxWaitNanos;
+        int spins = 0;
+        while (pending - (cachedHead = head) > mask) {
+            if (System.nanoTime() - deadline >= 0) {
+                overflowed = true;
+                return false;
+            }
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        return true;
+    }
+}
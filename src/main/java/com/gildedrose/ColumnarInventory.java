@@ -0,0 +1,205 @@
+package com.gildedrose;
+
+/**
+ * Inventário em formato colunar (struct-of-arrays), alternativo ao Item[].
+ *
+ * Em vez de um objeto por item, os atributos ficam em colunas paralelas:
+ * • sellIn: int[]
+ * • quality: byte[] (as regras da loja mantêm a qualidade entre 0 e 80;
+ *   um valor fora de -128..127 lança IllegalStateException em vez de ser
+ *   truncado)
+ * • categoryId: short[] (código do UpdaterRegistry, resolvido uma única vez)
+ * • kernel: byte[] (regra da loja que a categoria segue nos kernels SIMD)
+ * • nameIds: id do nome no ItemNameDictionary, usado na conversão para Item
+ *
+ * São 12 bytes por item contra ~28 de um Item (cabeçalho, campos e
+ * referência no array), e cada nome distinto é guardado uma única vez no
+ * dicionário. O updateQuality percorre as colunas em sequência, usando os
+ * kernels SIMD de VectorKernels quando o módulo jdk.incubator.vector está
+ * carregado e o laço escalar caso contrário.
+ * fromItems/copyTo/toItems fazem a ponte com o código que usa Item[].
+ */
+final class ColumnarInventory {
+    private static final boolean VECTOR_KERNELS = vectorKernelsAvailable();
+
+    // Regra da loja que cada categoria segue nos kernels SIMD
+    static final byte SCALAR_KERNEL = 0;
+    static final byte COMMON_KERNEL = 1;
+    static final byte CONJURED_KERNEL = 2;
+    static final byte BRIE_KERNEL = 3;
+    static final byte BACKSTAGE_KERNEL = 4;
+    static final byte FIXED_KERNEL = 5;
+
+    private final ItemNameDictionary dictionary;
+    private final int[] nameIds;
+    private final int[] sellIn;
+    private final byte[] quality;
+    private final short[] categoryId;
+    private final byte[] kernel;
+    private final ItemUpdater[] updaters;
+    private final byte[] kernels;
+
+    private ColumnarInventory(int size, ItemNameDictionary dictionary) {
+        UpdaterRegistry registry = dictionary.registry();
+        this.dictionary = dictionary;
+        this.updaters = new ItemUpdater[registry.categoryCount()];
+        this.kernels = new byte[updaters.length];
+        for (short category = 0; category < updaters.length; category++) {
+            updaters[category] = registry.updaterFor(category);
+            kernels[category] = kernelOf(updaters[category]);
+        }
+        this.nameIds = new int[size];
+        this.sellIn = new int[size];
+        this.quality = new byte[size];
+        this.categoryId = new short[size];
+        this.kernel = new byte[size];
+    }
+
+    static ColumnarInventory fromItems(Item[] items) {
+        return fromItems(items, UpdaterRegistry.withDefaults());
+    }
+
+    static ColumnarInventory fromItems(Item[] items, UpdaterRegistry registry) {
+        return fromItems(items, new ItemNameDictionary(registry));
+    }
+
+    static ColumnarInventory fromItems(Item[] items, ItemNameDictionary dictionary) {
+        ColumnarInventory inventory = new ColumnarInventory(items.length, dictionary);
+        for (int i = 0; i < items.length; i++) {
+            Item item = items[i];
+            if (item.quality < Byte.MIN_VALUE || item.quality > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Quality out of columnar range: " + item);
+            }
+            int nameId = dictionary.intern(item.name);
+            inventory.nameIds[i] = nameId;
+            inventory.sellIn[i] = item.sellIn;
+            inventory.quality[i] = (byte) item.quality;
+            inventory.categoryId[i] = dictionary.categoryOf(nameId);
+            inventory.kernel[i] = inventory.kernels[inventory.categoryId[i]];
+        }
+        return inventory;
+    }
+
+    public void updateQuality() {
+        if (VECTOR_KERNELS) {
+            updateQualityVectorized();
+        } else {
+            updateQualityScalar();
+        }
+    }
+
+    void updateQualityVectorized() {
+        VectorKernels.updateQuality(sellIn, quality, kernel, categoryId, updaters);
+    }
+
+    void updateQualityScalar() {
+        for (int i = 0; i < sellIn.length; i++) {
+            updateRow(sellIn, quality, updaters[categoryId[i]], i);
+        }
+    }
+
+    /**
+     * Os kernels SIMD dependem de um módulo incubado, carregado apenas com
+     * --add-modules jdk.incubator.vector; sem ele, fica o laço escalar.
+     */
+    static boolean vectorKernelsAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * Os kernels SIMD reproduzem apenas os updaters da loja. A decisão vem do
+     * updater que o registro associou ao código, e não do número da categoria:
+     * um registro montado de outra forma pode dar o código 0 a um
+     * DefaultUpdater. Subclasses e updaters próprios ficam no caminho escalar.
+     */
+    static byte kernelOf(ItemUpdater updater) {
+        Class<?> type = updater.getClass();
+        if (type == DefaultUpdater.class) {
+            return COMMON_KERNEL;
+        }
+        if (type == ConjuredItemUpdater.class) {
+            return CONJURED_KERNEL;
+        }
+        if (type == AgedBrieUpdater.class) {
+            return BRIE_KERNEL;
+        }
+        if (type == BackstagePassUpdater.class) {
+            return BACKSTAGE_KERNEL;
+        }
+        if (type == SulfurasUpdater.class) {
+            return FIXED_KERNEL;
+        }
+        return SCALAR_KERNEL;
+    }
+
+    static void updateRow(int[] sellIn, byte[] quality, ItemUpdater updater, int index) {
+        int currentSellIn = sellIn[index];
+        quality[index] = toQuality(updater.updatedQuality(currentSellIn, quality[index]), index);
+        sellIn[index] = updater.updatedSellIn(currentSellIn);
+    }
+
+    /**
+     * Um updater próprio (uma regra compilada com max=200, por exemplo) pode
+     * levar a qualidade para fora da coluna de bytes. A linha fica como
+     * estava e a execução é interrompida, em vez de gravar um valor truncado.
+     */
+    private static byte toQuality(int value, int index) {
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new IllegalStateException("Quality " + value + " of item " + index + " out of columnar range");
+        }
+        return (byte) value;
+    }
+
+    public void advance(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        for (int i = 0; i < sellIn.length; i++) {
+            ItemUpdater updater = updaters[categoryId[i]];
+            int currentSellIn = sellIn[i];
+            quality[i] = toQuality(updater.advancedQuality(currentSellIn, quality[i], days), i);
+            sellIn[i] = updater.advancedSellIn(currentSellIn, days);
+        }
+    }
+
+    /**
+     * Copia sellIn e quality de volta para os itens de origem, na mesma ordem.
+     */
+    public void copyTo(Item[] items) {
+        if (items.length != sellIn.length) {
+            throw new IllegalArgumentException("Expected " + sellIn.length + " items but got " + items.length);
+        }
+        for (int i = 0; i < items.length; i++) {
+            items[i].sellIn = sellIn[i];
+            items[i].quality = quality[i];
+        }
+    }
+
+    public Item[] toItems() {
+        Item[] items = new Item[sellIn.length];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item(dictionary.name(nameIds[i]), sellIn[i], quality[i]);
+        }
+        return items;
+    }
+
+    public int size() {
+        return sellIn.length;
+    }
+
+    public String name(int index) {
+        return dictionary.name(nameIds[index]);
+    }
+
+    public int nameId(int index) {
+        return nameIds[index];
+    }
+
+    public int sellIn(int index) {
+        return sellIn[index];
+    }
+
+    public int quality(int index) {
+        return quality[index];
+    }
+}
@@ -0,0 +1,83 @@
+package com.gildedrose;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Modelo das classes geradas pelo RuleCompiler. Esta classe nunca é
+ * inicializada diretamente: os seus bytes são redefinidos como uma hidden
+ * class por regra, e cada cópia recebe como class data os MethodHandles da
+ * sua regra. Por estarem em campos static final de uma hidden class, os
+ * handles são constantes para o JIT, que os inlina como código comum.
+ *
+ * Além do dia a dia, cada regra recebe a forma fechada de advance e o teste
+ * de ponto fixo (isSettled), como os updaters da loja: advance(n) custa O(1)
+ * e IncrementalInventory deixa de visitar itens que não mudam mais.
+ */
+final class CompiledRuleTemplate implements ItemUpdater {
+    private static final MethodHandle QUALITY = classData(0);
+    private static final MethodHandle SELL_IN = classData(1);
+    private static final MethodHandle ADVANCED_QUALITY = classData(2);
+    private static final MethodHandle ADVANCED_SELL_IN = classData(3);
+    private static final MethodHandle SETTLED = classData(4);
+
+    @Override
+    public void update(Item item) {
+        int quality = updatedQuality(item.sellIn, item.quality);
+        item.sellIn = updatedSellIn(item.sellIn);
+        item.quality = quality;
+    }
+
+    @Override
+    public int updatedQuality(int sellIn, int quality) {
+        try {
+            return (int) QUALITY.invokeExact(sellIn, quality);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int updatedSellIn(int sellIn) {
+        try {
+            return (int) SELL_IN.invokeExact(sellIn);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int advancedQuality(int sellIn, int quality, int days) {
+        try {
+            return (int) ADVANCED_QUALITY.invokeExact(sellIn, quality, days);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int advancedSellIn(int sellIn, int days) {
+        try {
+            return (int) ADVANCED_SELL_IN.invokeExact(sellIn, days);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean isSettled(int sellIn, int quality) {
+        try {
+            return (boolean) SETTLED.invokeExact(sellIn, quality);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle classData(int index) {
+        try {
+            return MethodHandles.classDataAt(MethodHandles.lookup(), "_", MethodHandle.class, index);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.gildedrose;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Serviço de inventário para leituras e escritas concorrentes enquanto a
+ * atualização diária acontece.
+ *
+ * Os itens são divididos em shards contíguos, cada um com o seu GildedRose e
+ * o seu StampedLock. A atualização diária roda um shard por virtual thread,
+ * segurando apenas o lock daquele shard. Leitores usam leitura otimista e
+ * só esperam se o shard do item estiver sendo atualizado naquele momento;
+ * nunca pela passada do inventário inteiro. Cada leitura devolve um par
+ * (sellIn, quality) consistente, de um mesmo dia.
+ *
+ * O serviço copia os itens recebidos e passa a ser o único dono deles.
+ */
+final class ConcurrentInventoryService implements AutoCloseable {
+    private final Shard[] shards;
+    private final int shardSize;
+    private final int size;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    ConcurrentInventoryService(Item[] items) {
+        this(items, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    ConcurrentInventoryService(Item[] items, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.size = items.length;
+        this.shardSize = Math.max(1, (items.length + shardCount - 1) / shardCount);
+        int count = (items.length + shardSize - 1) / shardSize;
+        this.shards = new Shard[count];
+        for (int s = 0; s < count; s++) {
+            int from = s * shardSize;
+            int to = Math.min(items.length, from + shardSize);
+            Item[] slice = new Item[to - from];
+            for (int i = from; i < to; i++) {
+                slice[i - from] = new Item(items[i].name, items[i].sellIn, items[i].quality);
+            }
+            shards[s] = new Shard(slice);
+        }
+    }
+
+    /**
+     * Avança um dia, atualizando os shards em paralelo em virtual threads.
+     */
+    public void updateQuality() {
+        List<Future<?>> pending = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            pending.add(executor.submit(shard::updateQuality));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while updating inventory", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Shard update failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Cópia do item na posição {@code index}, com sellIn e quality do mesmo dia.
+     */
+    public Item get(int index) {
+        checkIndex(index);
+        return shards[index / shardSize].read(index % shardSize);
+    }
+
+    public void set(int index, int sellIn, int quality) {
+        checkIndex(index);
+        shards[index / shardSize].write(index % shardSize, sellIn, quality);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Item " + index + " of " + size);
+        }
+    }
+
+    private static final class Shard {
+        private final Item[] items;
+        private final GildedRose rose;
+        private final StampedLock lock = new StampedLock();
+
+        Shard(Item[] items) {
+            this.items = items;
+            this.rose = new GildedRose(items);
+        }
+
+        void updateQuality() {
+            long stamp = lock.writeLock();
+            try {
+                rose.updateQuality();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Item read(int offset) {
+            Item item = items[offset];
+            long stamp = lock.tryOptimisticRead();
+            String name = item.name;
+            int sellIn = item.sellIn;
+            int quality = item.quality;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    name = item.name;
+                    sellIn = item.sellIn;
+                    quality = item.quality;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return new Item(name, sellIn, quality);
+        }
+
+        void write(int offset, int sellIn, int quality) {
+            long stamp = lock.writeLock();
+            try {
+                items[offset].sellIn = sellIn;
+                items[offset].quality = quality;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+}
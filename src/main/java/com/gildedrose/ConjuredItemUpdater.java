@@ -13,9 +13,55 @@ class ConjuredItemUpdater implements ItemUpdater {
         }
     }
 
+    @Override
+    public void updateAll(Item[] items, int[] indices, int from, int to) {
+        for (int i = from; i < to; i++) {
+            update(items[indices[i]]);
+        }
+    }
+
+    @Override
+    public int updatedQuality(int sellIn, int quality) {
+        quality = decreaseQuality(decreaseQuality(quality));
+
+        if (updatedSellIn(sellIn) < 0) {
+            quality = decreaseQuality(decreaseQuality(quality));
+        }
+        return quality;
+    }
+
+    @Override
+    public int updatedSellIn(int sellIn) {
+        return sellIn - 1;
+    }
+
+    @Override
+    public boolean isSettled(int sellIn, int quality) {
+        return quality <= 0;
+    }
+
+    @Override
+    public int advancedQuality(int sellIn, int quality, int days) {
+        if (quality <= 0) {
+            return quality;
+        }
+        long freshDays = Math.max(0, Math.min(days, sellIn));
+        long decrease = 2 * freshDays + 4 * (days - freshDays);
+        return (int) Math.max(0, quality - decrease);
+    }
+
+    @Override
+    public int advancedSellIn(int sellIn, int days) {
+        return sellIn - days;
+    }
+
     private void decreaseQuality(Item item) {
         if (item.quality > 0) {
             item.quality = item.quality - 1;
         }
     }
+
+    private int decreaseQuality(int quality) {
+        return quality > 0 ? quality - 1 : quality;
+    }
 }
@@ -0,0 +1,488 @@
+package com.gildedrose;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Inventário em memória com persistência por journal (write-ahead) e
+ * checkpoints.
+ *
+ * Cada operação é gravada no journal e sincronizada em disco antes de ser
+ * aplicada aos itens. Um dia inteiro vira um único registro ADVANCE, em vez
+ * de reescrever o inventário; edições pontuais viram registros SET.
+ *
+ * ARQUIVOS (no diretório do inventário):
+ * • checkpoint-N.bin: estado completo após a operação N, no formato de
+ *   BinaryInventoryFile
+ * • journal-N.log: operações N+1, N+2, ... feitas depois daquele checkpoint
+ *
+ * REGISTRO DO JOURNAL (big-endian): tipo (byte), número de sequência (long),
+ * três ints de dados e o CRC32 dos bytes anteriores; 25 bytes no total.
+ * ADVANCE usa só o primeiro int (dias); SET usa índice, sellIn e quality.
+ *
+ * COMPACTAÇÃO: a cada {@code checkpointInterval} registros um journal novo
+ * é iniciado e uma cópia dos itens é tirada, ambos sob o lock; a cópia é
+ * gravada como checkpoint em segundo plano, e só depois os checkpoints e
+ * journals anteriores são apagados. Enquanto o checkpoint N não chega ao
+ * disco, as operações seguintes ficam em journal-N, encadeado ao anterior na
+ * recuperação. Uma falha nesse checkpoint não desfaz nem invalida a operação
+ * que o disparou (ela já está no journal): fica em checkpointFailure() e a
+ * próxima compactação tenta de novo.
+ *
+ * A recuperação apaga arquivos .tmp deixados por uma queda, carrega o
+ * checkpoint mais recente e reaplica o journal dele (e os seguintes, se
+ * houver), com GildedRose.advance() em O(1) por item para cada ADVANCE. Um
+ * registro incompleto ou com CRC inválido no fim do journal (queda durante
+ * a escrita) é descartado; um registro inválido seguido de registros válidos
+ * é corrupção no meio do journal, e a abertura falha em vez de jogar fora
+ * operações confirmadas.
+ *
+ * FALHAS DE ESCRITA: se a gravação de um registro falhar no meio, o journal
+ * é truncado de volta ao fim do último registro completo. Se nem isso for
+ * possível, ou se o force falhar (o conteúdo em disco fica incerto), a
+ * instância passa a recusar novas operações; o estado confirmado é o que
+ * open() recuperar.
+ */
+final class DurableInventory implements AutoCloseable {
+    static final byte ADVANCE = 1;
+    static final byte SET = 2;
+    static final int RECORD_SIZE = 1 + 8 + 3 * 4 + 4;
+    // No Windows não é possível abrir um diretório como FileChannel
+    private static final boolean SYNC_DIRECTORY = !System.getProperty("os.name").startsWith("Windows");
+
+    private final Path directory;
+    private final int checkpointInterval;
+    private final Item[] items;
+    private final GildedRose rose;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final ExecutorService compaction = Executors.newSingleThreadExecutor(
+            task -> Thread.ofPlatform().daemon().name("journal-compaction").unstarted(task));
+    private FileChannel journal;
+    private long sequence;
+    private long journalRecords;
+    private IOException failure;
+    private volatile IOException checkpointFailure;
+
+    private DurableInventory(Path directory, UpdaterRegistry registry, int checkpointInterval,
+                             Item[] items, long sequence) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.directory = directory;
+        this.checkpointInterval = checkpointInterval;
+        this.items = items;
+        this.rose = new GildedRose(items, registry);
+        this.sequence = sequence;
+    }
+
+    /**
+     * Cria um inventário novo em {@code directory}, gravando o checkpoint
+     * inicial. Os itens passam a pertencer ao inventário.
+     */
+    static DurableInventory create(Path directory, Item[] items, int checkpointInterval) throws IOException {
+        Files.createDirectories(directory);
+        if (latestCheckpoint(directory) >= 0) {
+            throw new IOException("Inventory already exists in " + directory);
+        }
+        DurableInventory inventory = new DurableInventory(directory, UpdaterRegistry.withDefaults(),
+                checkpointInterval, items, 0);
+        inventory.checkpoint();
+        return inventory;
+    }
+
+    /**
+     * Recupera o estado a partir do checkpoint mais recente e do seu journal.
+     */
+    static DurableInventory open(Path directory, int checkpointInterval) throws IOException {
+        return open(directory, UpdaterRegistry.withDefaults(), checkpointInterval);
+    }
+
+    static DurableInventory open(Path directory, UpdaterRegistry registry, int checkpointInterval)
+            throws IOException {
+        long checkpoint = latestCheckpoint(directory);
+        if (checkpoint < 0) {
+            throw new IOException("No checkpoint found in " + directory);
+        }
+        Item[] items;
+        try (BinaryInventoryFile file = BinaryInventoryFile.open(checkpointFile(directory, checkpoint), registry)) {
+            items = new Item[Math.toIntExact(file.size())];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = new Item(file.name(i), file.sellIn(i), file.quality(i));
+            }
+        }
+        DurableInventory inventory = new DurableInventory(directory, registry, checkpointInterval, items, checkpoint);
+        inventory.deleteTemporaryFiles();
+        long start = checkpoint;
+        inventory.replay(journalFile(directory, start));
+        // Um checkpoint em segundo plano que não chegou ao disco deixa as
+        // operações seguintes no journal que começou nele
+        while (inventory.sequence != start && Files.exists(journalFile(directory, inventory.sequence))) {
+            start = inventory.sequence;
+            inventory.replay(journalFile(directory, start));
+        }
+        return inventory;
+    }
+
+    public synchronized void updateQuality() throws IOException {
+        advance(1);
+    }
+
+    public synchronized void advance(int days) throws IOException {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        ensureUsable();
+        append(ADVANCE, days, 0, 0);
+        rose.advance(days);
+        checkpointIfDue();
+    }
+
+    public synchronized void set(int index, int sellIn, int quality) throws IOException {
+        if (index < 0 || index >= items.length) {
+            throw new IndexOutOfBoundsException("Item " + index + " of " + items.length);
+        }
+        ensureUsable();
+        append(SET, index, sellIn, quality);
+        items[index].sellIn = sellIn;
+        items[index].quality = quality;
+        checkpointIfDue();
+    }
+
+    /**
+     * Grava o estado atual como checkpoint e espera a gravação terminar; os
+     * arquivos anteriores são apagados em seguida.
+     */
+    public synchronized void checkpoint() throws IOException {
+        ensureUsable();
+        Future<Void> written = startCheckpoint();
+        try {
+            written.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing checkpoint " + sequence);
+        }
+    }
+
+    /**
+     * A falha do último checkpoint feito em segundo plano, ou null se ele foi
+     * gravado. As operações que o dispararam já estavam no journal e não são
+     * afetadas.
+     */
+    public IOException checkpointFailure() {
+        return checkpointFailure;
+    }
+
+    public synchronized Item item(int index) {
+        Item item = items[index];
+        return new Item(item.name, item.sellIn, item.quality);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Número de sequência da última operação aplicada.
+     */
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        compaction.shutdown();
+        try {
+            compaction.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void append(byte type, int a, int b, int c) throws IOException {
+        record.clear();
+        record.put(type).putLong(sequence + 1).putInt(a).putInt(b).putInt(c);
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        record.putInt((int) crc.getValue());
+        record.flip();
+        // O journal só contém registros completos: o fim do último é conhecido
+        long start = journalRecords * RECORD_SIZE;
+        try {
+            while (record.hasRemaining()) {
+                journal.write(record);
+            }
+        } catch (IOException e) {
+            rollBack(start, e);
+            throw e;
+        }
+        try {
+            journal.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        sequence++;
+        journalRecords++;
+    }
+
+    /**
+     * Remove um registro gravado pela metade; sem isso, os próximos
+     * registros ficariam depois de um CRC inválido e se perderiam na
+     * recuperação.
+     */
+    private void rollBack(long start, IOException cause) {
+        try {
+            journal.truncate(start);
+            journal.position(start);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            failure = cause;
+        }
+    }
+
+    private void ensureUsable() throws IOException {
+        if (failure != null) {
+            throw new IOException("Journal write failed earlier; reopen " + directory + " to recover", failure);
+        }
+    }
+
+    private void syncDirectory() throws IOException {
+        if (!SYNC_DIRECTORY) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Chamado depois que a operação já foi gravada e aplicada: uma falha aqui
+     * não é da operação, então não é lançada ao chamador.
+     */
+    private void checkpointIfDue() {
+        if (journalRecords >= checkpointInterval) {
+            try {
+                startCheckpoint();
+            } catch (IOException e) {
+                checkpointFailure = e;
+            }
+        }
+    }
+
+    /**
+     * Sob o lock: copia os itens e passa a gravar num journal novo. A
+     * gravação da cópia fica com a thread de compactação.
+     */
+    private Future<Void> startCheckpoint() throws IOException {
+        long at = sequence;
+        Item[] copy = new Item[items.length];
+        for (int i = 0; i < items.length; i++) {
+            copy[i] = new Item(items[i].name, items[i].sellIn, items[i].quality);
+        }
+        if (journal == null || journalRecords > 0) {
+            startJournal(at);
+        }
+        return compaction.submit(() -> {
+            try {
+                writeCheckpoint(copy, at);
+                checkpointFailure = null;
+                return null;
+            } catch (IOException | RuntimeException e) {
+                checkpointFailure = e instanceof IOException io ? io : new IOException(e);
+                throw e;
+            }
+        });
+    }
+
+    private void startJournal(long at) throws IOException {
+        FileChannel next = FileChannel.open(journalFile(directory, at), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        FileChannel previous = journal;
+        journal = next;
+        journalRecords = 0;
+        try {
+            // O journal novo só existe em disco depois do force do diretório;
+            // sem isso as operações gravadas nele poderiam se perder
+            syncDirectory();
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Roda na thread de compactação, sem o lock. BinaryInventoryFile.write
+     * grava num .tmp, força e renomeia; o force do diretório garante o
+     * rename antes de apagar os arquivos que o checkpoint substitui.
+     */
+    private void writeCheckpoint(Item[] copy, long at) throws IOException {
+        BinaryInventoryFile.write(copy, checkpointFile(directory, at));
+        syncDirectory();
+        deleteOlderThan(at);
+    }
+
+    /**
+     * Reaplica o journal e o deixa aberto para novas operações, truncado no
+     * último registro válido.
+     */
+    private void replay(Path file) throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+        journal = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        journalRecords = 0;
+        long valid = 0;
+        while (readRecord(valid)) {
+            if (!checksumMatches()) {
+                checkNothingValidAfter(valid, file);
+                break;
+            }
+            valid += RECORD_SIZE;
+            record.rewind();
+            byte type = record.get();
+            long recordSequence = record.getLong();
+            int a = record.getInt();
+            int b = record.getInt();
+            int c = record.getInt();
+            if (recordSequence != sequence + 1) {
+                throw new IOException("Journal out of order: expected " + (sequence + 1)
+                        + " but found " + recordSequence + " in " + file);
+            }
+            if (type == ADVANCE) {
+                if (a < 0) {
+                    throw new IOException("Negative ADVANCE of " + a + " days in " + file);
+                }
+                rose.advance(a);
+            } else if (type == SET) {
+                if (a < 0 || a >= items.length) {
+                    throw new IOException("SET for item " + a + " of " + items.length + " in " + file);
+                }
+                items[a].sellIn = b;
+                items[a].quality = c;
+            } else {
+                throw new IOException("Unknown journal record type " + type + " in " + file);
+            }
+            sequence = recordSequence;
+            journalRecords++;
+        }
+        journal.truncate(valid);
+        journal.position(valid);
+    }
+
+    /**
+     * @return false se o journal acaba antes de um registro completo
+     */
+    private boolean readRecord(long position) throws IOException {
+        record.clear();
+        while (record.hasRemaining()) {
+            if (journal.read(record, position + record.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean checksumMatches() {
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        return record.getInt(RECORD_SIZE - 4) == (int) crc.getValue();
+    }
+
+    /**
+     * Cada append termina com force, então só o último registro pode ter
+     * ficado pela metade numa queda. Um registro válido depois de
+     * {@code invalid} indica corrupção no meio do journal.
+     */
+    private void checkNothingValidAfter(long invalid, Path file) throws IOException {
+        for (long position = invalid + RECORD_SIZE; readRecord(position); position += RECORD_SIZE) {
+            if (checksumMatches()) {
+                throw new IOException("Corrupted journal record at offset " + invalid
+                        + " followed by a valid record at offset " + position + " in " + file);
+            }
+        }
+    }
+
+    /**
+     * Checkpoints pela metade de uma execução anterior; nunca são lidos.
+     */
+    private void deleteTemporaryFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void deleteOlderThan(long keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                long fileSequence = sequenceOf(file);
+                if (fileSequence >= 0 && fileSequence < keep) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            // Arquivos antigos são só espaço em disco; a próxima compactação tenta de novo
+        }
+    }
+
+    private static long latestCheckpoint(Path directory) throws IOException {
+        long latest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "checkpoint-*.bin")) {
+            for (Path file : files) {
+                latest = Math.max(latest, sequenceOf(file));
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * @return o número no nome de um checkpoint ou journal, ou -1
+     */
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        String digits;
+        if (name.startsWith("checkpoint-") && name.endsWith(".bin")) {
+            digits = name.substring("checkpoint-".length(), name.length() - ".bin".length());
+        } else if (name.startsWith("journal-") && name.endsWith(".log")) {
+            digits = name.substring("journal-".length(), name.length() - ".log".length());
+        } else {
+            return -1;
+        }
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static Path checkpointFile(Path directory, long sequence) {
+        return directory.resolve("checkpoint-" + sequence + ".bin");
+    }
+
+    static Path journalFile(Path directory, long sequence) {
+        return directory.resolve("journal-" + sequence + ".log");
+    }
+}
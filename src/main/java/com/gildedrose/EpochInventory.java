@@ -0,0 +1,133 @@
+package com.gildedrose;
+
+/**
+ * Inventário com sellIn relativo a um contador global de dias.
+ *
+ * Cada linha guarda o dia em que vence (dia atual + sellIn) e a qualidade no
+ * dia em que foi gravada pela última vez. Avançar um dia só incrementa o
+ * contador: sellIn e quality de uma linha são calculados quando lidos, pela
+ * forma fechada de ItemUpdater.advancedSellIn/advancedQuality. Linhas que
+ * ninguém lê não custam nada por dia.
+ *
+ * Os campos de Item são públicos e lidos diretamente por todo o código, por
+ * isso essa representação vive em uma estrutura própria; item(), toItems()
+ * e copyTo() materializam os valores em objetos Item.
+ */
+final class EpochInventory {
+    private final ItemNameDictionary dictionary;
+    private final int[] nameIds;
+    private final ItemUpdater[] updaters;
+    private int registryVersion;
+    private final int[] expiryDay;
+    private final int[] baseDay;
+    private final int[] baseQuality;
+    private int day;
+
+    private EpochInventory(int size, ItemNameDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.nameIds = new int[size];
+        this.updaters = new ItemUpdater[size];
+        this.registryVersion = dictionary.registry().version();
+        this.expiryDay = new int[size];
+        this.baseDay = new int[size];
+        this.baseQuality = new int[size];
+    }
+
+    static EpochInventory fromItems(Item[] items) {
+        return fromItems(items, new ItemNameDictionary());
+    }
+
+    static EpochInventory fromItems(Item[] items, ItemNameDictionary dictionary) {
+        EpochInventory inventory = new EpochInventory(items.length, dictionary);
+        for (int i = 0; i < items.length; i++) {
+            inventory.nameIds[i] = dictionary.intern(items[i].name);
+            inventory.updaters[i] = dictionary.updaterFor(inventory.nameIds[i]);
+            inventory.set(i, items[i].sellIn, items[i].quality);
+        }
+        return inventory;
+    }
+
+    /**
+     * Avança um dia para todo o inventário, em O(1).
+     */
+    public void updateQuality() {
+        day++;
+    }
+
+    public void advance(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        day += days;
+    }
+
+    public int day() {
+        return day;
+    }
+
+    public int size() {
+        return nameIds.length;
+    }
+
+    public String name(int index) {
+        return dictionary.name(nameIds[index]);
+    }
+
+    public int sellIn(int index) {
+        return updater(index).advancedSellIn(expiryDay[index] - baseDay[index], day - baseDay[index]);
+    }
+
+    public int quality(int index) {
+        int elapsed = day - baseDay[index];
+        return updater(index).advancedQuality(expiryDay[index] - baseDay[index], baseQuality[index], elapsed);
+    }
+
+    /**
+     * Grava novos valores para a linha a partir do dia atual.
+     */
+    public void set(int index, int sellIn, int quality) {
+        baseDay[index] = day;
+        expiryDay[index] = day + sellIn;
+        baseQuality[index] = quality;
+    }
+
+    public Item item(int index) {
+        return new Item(name(index), sellIn(index), quality(index));
+    }
+
+    public Item[] toItems() {
+        Item[] items = new Item[nameIds.length];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = item(i);
+        }
+        return items;
+    }
+
+    /**
+     * Copia sellIn e quality atuais para os itens de origem, na mesma ordem.
+     */
+    public void copyTo(Item[] items) {
+        if (items.length != nameIds.length) {
+            throw new IllegalArgumentException("Expected " + nameIds.length + " items but got " + items.length);
+        }
+        for (int i = 0; i < items.length; i++) {
+            items[i].sellIn = sellIn(i);
+            items[i].quality = quality(i);
+        }
+    }
+
+    /**
+     * O updater de cada linha fica em cache, sem passar pelo lock do
+     * dicionário a cada leitura; só é refeito se o registry ganhar regras.
+     */
+    private ItemUpdater updater(int index) {
+        UpdaterRegistry registry = dictionary.registry();
+        if (registry.version() != registryVersion) {
+            for (int i = 0; i < updaters.length; i++) {
+                updaters[i] = dictionary.updaterFor(nameIds[i]);
+            }
+            registryVersion = registry.version();
+        }
+        return updaters[index];
+    }
+}
@@ -1,5 +1,8 @@
 package com.gildedrose;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * AVALIAÇÃO FINAL DE DESIGN
  * 
@@ -15,8 +18,7 @@ package com.gildedrose;
  * - Para adicionar um novo tipo de item (ex: "Enchanted Items"), basta:
  *   1. Criar uma nova classe EnchantedItemUpdater implements ItemUpdater
  *   2. Implementar a lógica específica no método update()
- *   3. Adicionar um campo na classe GildedRose para a nova instância
- *   4. Estender o método getUpdaterForItem() com uma nova condição
+ *   3. Registrar a nova instância no UpdaterRegistry (registerExact ou registerPrefix)
  * 
  * - Nenhuma classe existente precisa ser modificada
  * - Nenhuma lógica existente é alterada ou duplicada
@@ -57,8 +59,12 @@ package com.gildedrose;
  *   → Decrementa qualidade 1x normalmente, 2x após vencimento
  * 
  * - GildedRose: Responsável APENAS por:
- *   → Orquestrar o loop de atualização
- *   → Mapear nome do item ao updater correto
+ *   → Orquestrar o loop de atualização (um único laço por item, em
+ *     updateRange, para o dia a dia e para advance)
+ *   → Guardar, por item, a categoria resolvida pelo UpdaterRegistry
+ *   → Ligar os recursos opcionais ao laço: métricas e ChangeFeed entram
+ *     como um ItemHook chamado após cada item; modo paralelo, modo agrupado
+ *     e snapshots ficam em volta do laço
  *   (NÃO contém lógica específica de nenhum item)
  * 
  * Cada classe tem uma única razão para mudar: mudanças nas regras de um 
@@ -79,7 +85,7 @@ package com.gildedrose;
  *   public void update(Item item);
  * 
  * - Cada implementação pode ser substituída por qualquer outra sem quebrar GildedRose:
- *   ItemUpdater updater = getUpdaterForItem(item); // retorna qualquer implementação
+ *   ItemUpdater updater = getUpdaterForItem(i); // retorna qualquer implementação
  *   updater.update(item); // funciona com qualquer uma
  * 
  * - SulfurasUpdater (implementação vazia) não viola o contrato porque:
@@ -96,34 +102,437 @@ package com.gildedrose;
  */
 class GildedRose {
     Item[] items;
-    private final ItemUpdater agedBrieUpdater = new AgedBrieUpdater();
-    private final ItemUpdater sulfurasUpdater = new SulfurasUpdater();
-    private final ItemUpdater backstagePassUpdater = new BackstagePassUpdater();
-    private final ItemUpdater conjuredItemUpdater = new ConjuredItemUpdater();
-    private final ItemUpdater defaultUpdater = new DefaultUpdater();
+    private final UpdaterRegistry registry;
+    private final ItemNameDictionary names;
+    private String[] resolvedNames = new String[0];
+    private short[] categories = new short[0];
+    private int[] nameIds = new int[0];
+    private ItemUpdater[] updaterById = new ItemUpdater[0];
+    private int registryVersion = -1;
+    private int[] groupedIndices = new int[0];
+    private int[] groupStarts = new int[0];
+    private boolean groupsDirty = true;
+    private ForkJoinPool pool;
+    private int parallelThreshold;
+    private volatile UpdateMetrics metrics;
+    private ChangeFeed changeFeed;
+    private volatile SnapshotInventory snapshots;
+    private int[] previousSellIn = new int[0];
+    private int[] previousQuality = new int[0];
+
+    /**
+     * Chamado por updateRange depois de cada item, com o estado de antes.
+     */
+    @FunctionalInterface
+    interface ItemHook {
+        void updated(int index, int sellIn, int quality, Item item);
+    }
 
     public GildedRose(Item[] items) {
+        this(items, UpdaterRegistry.withDefaults());
+    }
+
+    GildedRose(Item[] items, UpdaterRegistry registry) {
+        this.items = items;
+        this.registry = registry;
+        this.names = null;
+    }
+
+    /**
+     * Resolve os nomes através de um dicionário compartilhado: cada posição
+     * guarda o id do nome e o updater é escolhido pelo id, de modo que cada
+     * nome distinto é avaliado pelas regras uma única vez. Os objetos Item
+     * do chamador não são alterados.
+     */
+    GildedRose(Item[] items, ItemNameDictionary names) {
         this.items = items;
+        this.registry = names.registry();
+        this.names = names;
+    }
+
+    /**
+     * Ativa o modo paralelo: inventários com pelo menos {@code threshold}
+     * itens são divididos entre as threads de {@code pool}; abaixo disso o
+     * laço continua sequencial. O resultado é idêntico ao sequencial desde
+     * que cada posição do array aponte para uma instância de Item distinta.
+     */
+    void enableParallelUpdates(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be positive: " + threshold);
+        }
+        this.pool = pool;
+        this.parallelThreshold = threshold;
+    }
+
+    void disableParallelUpdates() {
+        this.pool = null;
+    }
+
+    /**
+     * Passa a registrar em {@code feed}, a cada execução, os itens cuja
+     * qualidade mudou. A GildedRose é a única produtora do feed.
+     */
+    void attachChangeFeed(ChangeFeed feed) {
+        this.changeFeed = feed;
+    }
+
+    void detachChangeFeed() {
+        this.changeFeed = null;
+    }
+
+    /**
+     * Passa a publicar, ao final de cada execução, uma versão imutável do
+     * inventário que outras threads leem com snapshot() enquanto os Item são
+     * alterados. Só os blocos que mudaram são copiados (ver
+     * SnapshotInventory).
+     */
+    void enableSnapshots() {
+        ItemNameDictionary dictionary = names != null ? names : new ItemNameDictionary(registry);
+        snapshots = SnapshotInventory.fromItems(items, dictionary, SnapshotInventory.DEFAULT_CHUNK_SIZE);
+    }
+
+    void disableSnapshots() {
+        snapshots = null;
+    }
+
+    /**
+     * O estado ao final da última execução (ou de enableSnapshots), nunca um
+     * dia pela metade. Pode ser chamado de qualquer thread.
+     */
+    InventorySnapshot snapshot() {
+        SnapshotInventory snapshots = this.snapshots;
+        if (snapshots == null) {
+            throw new IllegalStateException("Snapshots are not enabled");
+        }
+        return snapshots.snapshot();
     }
 
+    /**
+     * Liga a instrumentação: as próximas execuções de updateQuality(),
+     * updateQualityByCategory() e advance() somam em {@code metrics} e emitem
+     * um UpdateQualityEvent para o JFR. Pode ser ligada e desligada com o
+     * inventário em uso; cada execução usa o valor lido no seu início.
+     */
+    void enableMetrics(UpdateMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Desliga a instrumentação; o laço volta a ser o mesmo de antes, sem
+     * leituras de relógio nem contadores.
+     */
+    void disableMetrics() {
+        this.metrics = null;
+    }
+
+    /**
+     * Atualiza todos os itens em um dia.
+     *
+     * No modo sequencial, depois que as categorias estão em cache, nenhum
+     * objeto é alocado: nem na resolução do updater nem nas regras da loja
+     * (verificado por AllocationTest). O modo paralelo aloca as tarefas
+     * fork-join de cada execução; com métricas ligadas cada execução aloca
+     * o seu UpdateQualityEvent e a ação medida, e com métricas ou ChangeFeed,
+     * o ItemHook que os alimenta. Com snapshots ligados, cada
+     * execução copia os blocos do SnapshotInventory que mudaram.
+     *
+     * Com um ChangeFeed ligado, os itens cuja qualidade mudou são publicados
+     * no feed, e a execução fecha o lote com um marcador de fim de lote.
+     */
     public void updateQuality() {
-        for (int i = 0; i < items.length; i++) {
-            ItemUpdater updater = getUpdaterForItem(items[i]);
-            updater.update(items[i]);
+        ensureCategoryCache();
+        UpdateMetrics metrics = this.metrics;
+        if (metrics == null) {
+            runUpdate(null);
+        } else {
+            measure(metrics, 1, isParallel(), () -> runUpdate(metrics));
+        }
+        publishSnapshot(1);
+    }
+
+    private void publishSnapshot(int days) {
+        SnapshotInventory snapshots = this.snapshots;
+        if (snapshots != null) {
+            snapshots.publish(items, days);
+        }
+    }
+
+    /**
+     * Execução instrumentada: {@code metrics} é o mesmo objeto do início ao
+     * fim, inclusive nas fatias paralelas, mesmo que enableMetrics ou
+     * disableMetrics sejam chamados no meio.
+     */
+    private void measure(UpdateMetrics metrics, int days, boolean parallel, Runnable run) {
+        metrics.ensureCategories(registry.categoryCount());
+        UpdateQualityEvent event = new UpdateQualityEvent();
+        long resolutionsBefore = metrics.resolutions();
+        event.begin();
+        long start = System.nanoTime();
+        run.run();
+        metrics.recordRun(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.items = items.length;
+            event.days = days;
+            event.parallel = parallel;
+            event.resolutions = metrics.resolutions() - resolutionsBefore;
+            event.commit();
         }
     }
 
-    private ItemUpdater getUpdaterForItem(Item item) {
-        if (item.name.equals("Aged Brie")) {
-            return agedBrieUpdater;
-        } else if (item.name.equals("Sulfuras, Hand of Ragnaros")) {
-            return sulfurasUpdater;
-        } else if (item.name.equals("Backstage passes to a TAFKAL80ETC concert")) {
-            return backstagePassUpdater;
-        } else if (item.name.startsWith("Conjured")) {
-            return conjuredItemUpdater;
+    private boolean isParallel() {
+        return pool != null && items.length >= parallelThreshold;
+    }
+
+    private void runUpdate(UpdateMetrics metrics) {
+        ChangeFeed feed = changeFeed;
+        if (isParallel()) {
+            if (feed != null) {
+                // As fatias rodam fora de ordem: compara-se depois, em ordem de índice
+                rememberState();
+            }
+            if (names != null) {
+                resolveAll(metrics);
+            }
+            pool.invoke(new UpdateQualityTask(this, metrics, itemHook(metrics, null), 0, items.length, leafSize()));
+            if (feed != null) {
+                publishChanges(feed);
+            }
+        } else {
+            updateRange(0, items.length, 1, metrics, itemHook(metrics, feed));
+            if (feed != null) {
+                feed.publish();
+            }
+        }
+    }
+
+    /**
+     * Modo agrupado: as posições são ordenadas por categoria (counting sort,
+     * refeito apenas quando alguma categoria muda) e cada updater é chamado
+     * uma única vez com o seu grupo inteiro, via ItemUpdater.updateAll.
+     * O resultado é o mesmo de updateQuality().
+     */
+    public void updateQualityByCategory() {
+        ensureCategoryCache();
+        UpdateMetrics metrics = this.metrics;
+        if (metrics == null) {
+            runByCategory(null);
         } else {
-            return defaultUpdater;
+            measure(metrics, 1, false, () -> runByCategory(metrics));
+        }
+        publishSnapshot(1);
+    }
+
+    private void runByCategory(UpdateMetrics metrics) {
+        resolveAll(metrics);
+        ChangeFeed feed = changeFeed;
+        if (feed != null || metrics != null) {
+            rememberState();
+        }
+        if (groupsDirty) {
+            groupByCategory();
+        }
+        for (short category = 0; category < groupStarts.length - 1; category++) {
+            int from = groupStarts[category];
+            int to = groupStarts[category + 1];
+            if (from < to) {
+                registry.updaterFor(category).updateAll(items, groupedIndices, from, to);
+            }
+        }
+        if (metrics != null) {
+            for (int i = 0; i < items.length; i++) {
+                metrics.recordItem(categories[i], previousQuality[i], items[i]);
+            }
+        }
+        if (feed != null) {
+            publishChanges(feed);
+        }
+    }
+
+    /**
+     * Avança todos os itens {@code days} dias de uma vez, em O(1) por item
+     * para os updaters da loja. Equivale a chamar updateQuality() {@code days}
+     * vezes, exceto nas métricas: o salto conta como uma execução e cada item
+     * é contado uma vez, comparando o estado antes e depois dos {@code days}
+     * dias.
+     */
+    public void advance(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        ensureCategoryCache();
+        UpdateMetrics metrics = this.metrics;
+        if (metrics == null) {
+            runAdvance(days, null);
+        } else {
+            measure(metrics, days, false, () -> runAdvance(days, metrics));
+        }
+        publishSnapshot(days);
+    }
+
+    private void runAdvance(int days, UpdateMetrics metrics) {
+        ChangeFeed feed = changeFeed;
+        updateRange(0, items.length, days, metrics, itemHook(metrics, feed));
+        if (feed != null) {
+            feed.publish();
+        }
+    }
+
+    /**
+     * O hook da execução: registra no feed e depois nas métricas, ou é null
+     * quando nenhum dos dois está ligado e o laço fica sem chamadas extras.
+     */
+    private ItemHook itemHook(UpdateMetrics metrics, ChangeFeed feed) {
+        ItemHook recordItem = metrics == null ? null
+                : (index, sellIn, quality, item) -> metrics.recordItem(categories[index], quality, item);
+        if (feed == null) {
+            return recordItem;
+        }
+        ItemHook recordChange = (index, sellIn, quality, item) -> {
+            if (item.quality != quality) {
+                feed.record(index, sellIn, item.sellIn, quality, item.quality);
+            }
+        };
+        if (recordItem == null) {
+            return recordChange;
+        }
+        return (index, sellIn, quality, item) -> {
+            recordChange.updated(index, sellIn, quality, item);
+            recordItem.updated(index, sellIn, quality, item);
+        };
+    }
+
+    /**
+     * Cerca de quatro fatias por thread para equilibrar a carga; o limiar de
+     * ativação não entra na conta, só o tamanho e o paralelismo.
+     */
+    int leafSize() {
+        int slices = pool.getParallelism() * 4;
+        return Math.max(1, (items.length + slices - 1) / slices);
+    }
+
+    /**
+     * O laço por item de updateQuality (days = 1, via update) e de advance.
+     * {@code metrics} só mede a resolução de categorias; o que se registra
+     * por item fica com {@code hook}, que pode ser null.
+     */
+    void updateRange(int from, int to, int days, UpdateMetrics metrics, ItemHook hook) {
+        for (int i = from; i < to; i++) {
+            ItemUpdater updater = getUpdaterForItem(i, metrics);
+            Item item = items[i];
+            int sellIn = item.sellIn;
+            int quality = item.quality;
+            if (days == 1) {
+                updater.update(item);
+            } else {
+                updater.advance(item, days);
+            }
+            if (hook != null) {
+                hook.updated(i, sellIn, quality, item);
+            }
+        }
+    }
+
+    private void rememberState() {
+        if (previousSellIn.length != items.length) {
+            previousSellIn = new int[items.length];
+            previousQuality = new int[items.length];
+        }
+        for (int i = 0; i < items.length; i++) {
+            previousSellIn[i] = items[i].sellIn;
+            previousQuality[i] = items[i].quality;
+        }
+    }
+
+    private void publishChanges(ChangeFeed feed) {
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].quality != previousQuality[i]) {
+                feed.record(i, previousSellIn[i], items[i].sellIn, previousQuality[i], items[i].quality);
+            }
+        }
+        feed.publish();
+    }
+
+    /**
+     * A categoria de cada posição é resolvida na primeira vez que o item é
+     * visto e reaproveitada nos dias seguintes. Se o nome do item for trocado
+     * (outra referência de String), a categoria é resolvida de novo.
+     * {@code metrics} é o da execução em andamento, ou null.
+     */
+    private ItemUpdater getUpdaterForItem(int index, UpdateMetrics metrics) {
+        String name = items[index].name;
+        if (name != resolvedNames[index] || name == null) {
+            if (metrics == null) {
+                resolve(index, name);
+            } else {
+                long start = System.nanoTime();
+                resolve(index, name);
+                metrics.recordResolution(System.nanoTime() - start);
+            }
+        }
+        if (names != null) {
+            return updaterById[nameIds[index]];
+        }
+        return registry.updaterFor(categories[index]);
+    }
+
+    private void resolve(int index, String name) {
+        groupsDirty = true;
+        if (names == null) {
+            categories[index] = registry.categoryOf(name);
+            resolvedNames[index] = name;
+            return;
+        }
+        int id = names.intern(name);
+        short category = names.categoryOf(id);
+        synchronized (this) {
+            if (id >= updaterById.length) {
+                updaterById = Arrays.copyOf(updaterById, Math.max(id + 1, updaterById.length * 2));
+            }
+            updaterById[id] = registry.updaterFor(category);
+        }
+        nameIds[index] = id;
+        categories[index] = category;
+        resolvedNames[index] = name;
+    }
+
+    /**
+     * No modo paralelo com dicionário, os nomes novos são resolvidos antes de
+     * dividir o trabalho: as tarefas só leem a tabela de updaters por id,
+     * que não cresce durante a execução.
+     */
+    private void resolveAll(UpdateMetrics metrics) {
+        for (int i = 0; i < items.length; i++) {
+            getUpdaterForItem(i, metrics);
+        }
+    }
+
+    private void ensureCategoryCache() {
+        if (categories.length != items.length || registryVersion != registry.version()) {
+            resolvedNames = new String[items.length];
+            categories = new short[items.length];
+            nameIds = new int[names == null ? 0 : items.length];
+            updaterById = new ItemUpdater[0];
+            registryVersion = registry.version();
+            groupsDirty = true;
+        }
+    }
+
+    private void groupByCategory() {
+        int[] starts = new int[registry.categoryCount() + 1];
+        for (short category : categories) {
+            starts[category + 1]++;
+        }
+        for (int c = 1; c < starts.length; c++) {
+            starts[c] += starts[c - 1];
+        }
+        int[] next = starts.clone();
+        int[] indices = new int[items.length];
+        for (int i = 0; i < categories.length; i++) {
+            indices[next[categories[i]]++] = i;
         }
+        groupedIndices = indices;
+        groupStarts = starts;
+        groupsDirty = false;
     }
 }
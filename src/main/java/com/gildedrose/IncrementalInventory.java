@@ -0,0 +1,120 @@
+package com.gildedrose;
+
+/**
+ * Atualização incremental: só visita os itens cuja qualidade ainda pode
+ * mudar.
+ *
+ * Um item que chega a um ponto fixo (ItemUpdater.isSettled: comum ou
+ * Conjured com qualidade 0, Aged Brie em 50, Backstage pass vencido e
+ * zerado, Sulfuras sempre) sai da lista de ativos. O sellIn dele deixa de ser
+ * escrito todos os dias: é materializado de uma vez por sync() ou item(),
+ * a partir do dia em que o item estabilizou. Assim, um catálogo com muitos
+ * itens parados custa tempo proporcional aos itens ativos.
+ *
+ * Os campos dos itens estáveis só estão em dia depois de sync(). Se um item
+ * for alterado por fora (nome, sellIn ou quality), chame refresh().
+ */
+final class IncrementalInventory {
+    private final Item[] items;
+    private final UpdaterRegistry registry;
+    private final ItemUpdater[] updaters;
+    private final int[] settledDay;
+    private final int[] active;
+    private final int[] settled;
+    private int activeCount;
+    private int settledCount;
+    private int day;
+
+    IncrementalInventory(Item[] items) {
+        this(items, UpdaterRegistry.withDefaults());
+    }
+
+    IncrementalInventory(Item[] items, UpdaterRegistry registry) {
+        this.items = items;
+        this.registry = registry;
+        this.updaters = new ItemUpdater[items.length];
+        this.settledDay = new int[items.length];
+        this.active = new int[items.length];
+        this.settled = new int[items.length];
+        schedule();
+    }
+
+    public void updateQuality() {
+        day++;
+        int kept = 0;
+        for (int k = 0; k < activeCount; k++) {
+            int index = active[k];
+            Item item = items[index];
+            ItemUpdater updater = updaters[index];
+            updater.update(item);
+            if (updater.isSettled(item.sellIn, item.quality)) {
+                settledDay[index] = day;
+                settled[settledCount++] = index;
+            } else {
+                active[kept++] = index;
+            }
+        }
+        activeCount = kept;
+    }
+
+    /**
+     * Aplica o sellIn pendente a todos os itens estáveis.
+     */
+    public void sync() {
+        for (int k = 0; k < settledCount; k++) {
+            materialize(settled[k]);
+        }
+    }
+
+    /**
+     * Devolve o item da posição {@code index} com sellIn em dia.
+     */
+    public Item item(int index) {
+        if (settledDay[index] >= 0) {
+            materialize(index);
+        }
+        return items[index];
+    }
+
+    /**
+     * Sincroniza, resolve de novo as categorias e reavalia quais itens estão
+     * ativos; necessário depois de alterações feitas diretamente nos itens.
+     */
+    public void refresh() {
+        sync();
+        schedule();
+    }
+
+    public int activeCount() {
+        return activeCount;
+    }
+
+    public int day() {
+        return day;
+    }
+
+    private void materialize(int index) {
+        int pendingDays = day - settledDay[index];
+        if (pendingDays > 0) {
+            Item item = items[index];
+            item.sellIn = updaters[index].advancedSellIn(item.sellIn, pendingDays);
+            settledDay[index] = day;
+        }
+    }
+
+    private void schedule() {
+        activeCount = 0;
+        settledCount = 0;
+        for (int i = 0; i < items.length; i++) {
+            Item item = items[i];
+            updaters[i] = registry.updaterFor(registry.categoryOf(item.name));
+            if (updaters[i].isSettled(item.sellIn, item.quality)) {
+                settledDay[i] = day;
+                settled[settledCount++] = i;
+            } else {
+                settledDay[i] = -1;
+                active[activeCount++] = i;
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.gildedrose;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inventário com índices secundários por vencimento e por qualidade, para
+ * consultas como "o que vence nos próximos N dias" sem varrer tudo.
+ *
+ * VENCIMENTO: itens cujo sellIn cai 1 por dia são indexados pelo dia
+ * absoluto em que o sellIn chega a zero (dia atual + sellIn). Essa chave não
+ * muda com a passagem do tempo, então updateQuality() não mexe neles. Itens
+ * de categorias em que o sellIn não anda assim (Sulfuras) ficam em um
+ * índice à parte, pela chave do próprio sellIn.
+ *
+ * QUALIDADE: um balde por valor de qualidade; a cada dia só os itens cuja
+ * qualidade mudou trocam de balde.
+ *
+ * Os índices são TreeMaps de baldes não vazios, e cada item sabe a sua
+ * posição no balde (remoção em O(1)), então uma consulta custa o tamanho do
+ * resultado mais o log do número de baldes.
+ */
+final class IndexedInventory {
+    private final Item[] items;
+    private final GildedRose rose;
+    private final boolean[] moving;
+    private final RangeIndex byExpiryDay;
+    private final RangeIndex byFixedSellIn;
+    private final RangeIndex byQuality;
+    private final int[] expiryKey;
+    private final int[] qualityKey;
+    private int day;
+
+    IndexedInventory(Item[] items) {
+        this(items, UpdaterRegistry.withDefaults());
+    }
+
+    /**
+     * Os itens passam a pertencer ao inventário; use set() para editá-los.
+     */
+    IndexedInventory(Item[] items, UpdaterRegistry registry) {
+        this.items = items;
+        this.rose = new GildedRose(items, registry);
+        this.moving = new boolean[items.length];
+        this.byExpiryDay = new RangeIndex(items.length);
+        this.byFixedSellIn = new RangeIndex(items.length);
+        this.byQuality = new RangeIndex(items.length);
+        this.expiryKey = new int[items.length];
+        this.qualityKey = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            ItemUpdater updater = registry.updaterFor(registry.categoryOf(items[i].name));
+            moving[i] = updater.updatedSellIn(0) == -1 && updater.updatedSellIn(1) == 0;
+            expiryKey[i] = expiryKeyOf(i);
+            expiryIndex(i).add(expiryKey[i], i);
+            qualityKey[i] = items[i].quality;
+            byQuality.add(qualityKey[i], i);
+        }
+    }
+
+    public void updateQuality() {
+        rose.updateQuality();
+        day++;
+        reindex();
+    }
+
+    public void advance(int days) {
+        rose.advance(days);
+        day += days;
+        reindex();
+    }
+
+    public void set(int index, int sellIn, int quality) {
+        items[index].sellIn = sellIn;
+        items[index].quality = quality;
+        reindex(index);
+    }
+
+    public Item item(int index) {
+        Item item = items[index];
+        return new Item(item.name, item.sellIn, item.quality);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Itens ainda no prazo (sellIn >= 0) que vencem em menos de
+     * {@code days} dias, isto é, com sellIn entre 0 e days - 1.
+     */
+    public int[] expiringWithin(int days) {
+        IntList result = new IntList();
+        if (days > 0) {
+            byExpiryDay.collect(day, day + days, result);
+            byFixedSellIn.collect(0, days, result);
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Itens com sellIn negativo.
+     */
+    public int[] expired() {
+        IntList result = new IntList();
+        byExpiryDay.collect(Integer.MIN_VALUE, day, result);
+        byFixedSellIn.collect(Integer.MIN_VALUE, 0, result);
+        return result.toArray();
+    }
+
+    public int[] qualityBelow(int threshold) {
+        return qualityInRange(Integer.MIN_VALUE, threshold);
+    }
+
+    /**
+     * Itens com qualidade em [from, to).
+     */
+    public int[] qualityInRange(int from, int to) {
+        IntList result = new IntList();
+        byQuality.collect(from, to, result);
+        return result.toArray();
+    }
+
+    private void reindex() {
+        for (int i = 0; i < items.length; i++) {
+            reindex(i);
+        }
+    }
+
+    /**
+     * Acerta os índices de um item: só toca nos baldes se a chave mudou.
+     */
+    private void reindex(int index) {
+        int expiry = expiryKeyOf(index);
+        if (expiry != expiryKey[index]) {
+            RangeIndex target = expiryIndex(index);
+            target.remove(expiryKey[index], index);
+            target.add(expiry, index);
+            expiryKey[index] = expiry;
+        }
+        int quality = items[index].quality;
+        if (quality != qualityKey[index]) {
+            byQuality.remove(qualityKey[index], index);
+            byQuality.add(quality, index);
+            qualityKey[index] = quality;
+        }
+    }
+
+    private int expiryKeyOf(int index) {
+        return moving[index] ? day + items[index].sellIn : items[index].sellIn;
+    }
+
+    private RangeIndex expiryIndex(int index) {
+        return moving[index] ? byExpiryDay : byFixedSellIn;
+    }
+
+    /**
+     * Baldes de itens por chave inteira, ordenados pela chave.
+     */
+    private static final class RangeIndex {
+        private final TreeMap<Integer, Bucket> buckets = new TreeMap<>();
+        private final int[] position;
+
+        RangeIndex(int size) {
+            this.position = new int[size];
+        }
+
+        void add(int key, int item) {
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+            position[item] = bucket.size;
+            bucket.add(item);
+        }
+
+        void remove(int key, int item) {
+            Bucket bucket = buckets.get(key);
+            int moved = bucket.removeAt(position[item]);
+            if (moved >= 0) {
+                position[moved] = position[item];
+            }
+            if (bucket.size == 0) {
+                buckets.remove(key);
+            }
+        }
+
+        /**
+         * Chaves em [from, to).
+         */
+        void collect(int from, int to, IntList out) {
+            if (from >= to) {
+                return;
+            }
+            for (Map.Entry<Integer, Bucket> entry : buckets.subMap(from, true, to, false).entrySet()) {
+                Bucket bucket = entry.getValue();
+                out.addAll(bucket.items, bucket.size);
+            }
+        }
+    }
+
+    private static final class Bucket {
+        int[] items = new int[4];
+        int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        /**
+         * Remove a posição trocando-a pelo último item.
+         *
+         * @return o item que mudou de posição, ou -1
+         */
+        int removeAt(int at) {
+            size--;
+            if (at == size) {
+                return -1;
+            }
+            items[at] = items[size];
+            return items[at];
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void addAll(int[] source, int count) {
+            if (size + count > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + count, values.length * 2));
+            }
+            System.arraycopy(source, 0, values, size, count);
+            size += count;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
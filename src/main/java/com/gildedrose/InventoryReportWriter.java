@@ -0,0 +1,160 @@
+package com.gildedrose;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Escreve o relatório de Program ("name, sellIn, quality" por item) direto
+ * em um ByteBuffer reaproveitado, e o entrega ao canal em blocos grandes.
+ *
+ * Nenhuma String é criada por item: os caracteres do nome são copiados para
+ * o buffer (nomes ASCII byte a byte; os demais codificados no charset do
+ * destino) e os números são formatados dígito a dígito. As linhas terminam
+ * com System.lineSeparator(), como em println. Com o charset do PrintStream
+ * de destino (System.out.charset() em Program), a saída é idêntica byte a
+ * byte à de println(item), inclusive na troca por '?' dos caracteres que o
+ * charset não representa. O atalho ASCII exige um charset compatível com
+ * ASCII; UTF-16 e afins são recusados.
+ *
+ * Não é thread-safe. Os dados só chegam ao canal em flush() ou quando o
+ * buffer enche.
+ */
+final class InventoryReportWriter implements Flushable {
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] SEPARATOR = ", ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DAY_PREFIX = "-------- day ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DAY_SUFFIX = " --------".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER = ItemLineFormat.HEADER.getBytes(StandardCharsets.US_ASCII);
+
+    private final WritableByteChannel channel;
+    private final Charset charset;
+    private final ByteBuffer buffer;
+    private final byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private final byte[] digits = new byte[20];
+
+    InventoryReportWriter(WritableByteChannel channel, Charset charset) {
+        this(channel, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    InventoryReportWriter(WritableByteChannel channel, Charset charset, int bufferSize) {
+        if (bufferSize < digits.length) {
+            throw new IllegalArgumentException("Buffer too small: " + bufferSize);
+        }
+        if (!isAsciiCompatible(charset)) {
+            throw new IllegalArgumentException("Charset is not ASCII-compatible: " + charset);
+        }
+        this.channel = channel;
+        this.charset = charset;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        char[] ascii = new char[0x80];
+        for (char c = 0; c < ascii.length; c++) {
+            ascii[c] = c;
+        }
+        String text = new String(ascii);
+        return charset.canEncode()
+                && Arrays.equals(text.getBytes(charset), text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Cabeçalho de um dia, como em Program: a linha "-------- day N --------"
+     * seguida de "name, sellIn, quality".
+     */
+    void writeDayHeader(int day) throws IOException {
+        put(DAY_PREFIX);
+        putInt(day);
+        put(DAY_SUFFIX);
+        put(lineSeparator);
+        put(HEADER);
+        put(lineSeparator);
+    }
+
+    void writeItem(Item item) throws IOException {
+        putName(item.name);
+        put(SEPARATOR);
+        putInt(item.sellIn);
+        put(SEPARATOR);
+        putInt(item.quality);
+        put(lineSeparator);
+    }
+
+    void writeItems(Item[] items) throws IOException {
+        for (Item item : items) {
+            writeItem(item);
+        }
+    }
+
+    void writeLine(String text) throws IOException {
+        putName(text);
+        put(lineSeparator);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putName(String name) throws IOException {
+        if (name == null) {
+            put(NULL);
+            return;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                // Raro: o restante do nome vai pelo codificador do charset
+                put(name.substring(i).getBytes(charset));
+                return;
+            }
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put((byte) c);
+        }
+    }
+
+    private void putInt(int value) throws IOException {
+        long remaining = value;
+        boolean negative = remaining < 0;
+        if (negative) {
+            remaining = -remaining;
+        }
+        int at = digits.length;
+        do {
+            digits[--at] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (negative) {
+            digits[--at] = '-';
+        }
+        put(digits, at, digits.length - at);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        put(bytes, 0, bytes.length);
+    }
+
+    private void put(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+}
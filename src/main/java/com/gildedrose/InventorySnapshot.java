@@ -0,0 +1,108 @@
+package com.gildedrose;
+
+/**
+ * Visão imutável de um SnapshotInventory em um dia. Continua válida e
+ * inalterada enquanto o inventário segue sendo atualizado.
+ */
+final class InventorySnapshot {
+    private final SnapshotInventory inventory;
+    private final int day;
+    private final int[][] nameIds;
+    private final int[][] sellIn;
+    private final int[][] quality;
+    private final boolean[] relativeSellIn;
+
+    InventorySnapshot(SnapshotInventory inventory, int day, int[][] nameIds, int[][] sellIn, int[][] quality,
+                      boolean[] relativeSellIn) {
+        this.inventory = inventory;
+        this.day = day;
+        this.nameIds = nameIds;
+        this.sellIn = sellIn;
+        this.quality = quality;
+        this.relativeSellIn = relativeSellIn;
+    }
+
+    /**
+     * Número de dias aplicados desde a criação do inventário.
+     */
+    public int day() {
+        return day;
+    }
+
+    public int size() {
+        return inventory.size();
+    }
+
+    public String name(int index) {
+        return inventory.name(nameId(index));
+    }
+
+    public int sellIn(int index) {
+        int stored = sellIn[index / inventory.chunkSize()][index % inventory.chunkSize()];
+        return relativeSellIn[nameId(index)] ? stored - day : stored;
+    }
+
+    public int quality(int index) {
+        return quality[index / inventory.chunkSize()][index % inventory.chunkSize()];
+    }
+
+    public Item item(int index) {
+        return new Item(name(index), sellIn(index), quality(index));
+    }
+
+    public Item[] toItems() {
+        Item[] items = new Item[size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = item(i);
+        }
+        return items;
+    }
+
+    /**
+     * Quantos blocos esta versão compartilha inteiros com {@code other}, sem
+     * cópia de nenhuma coluna.
+     */
+    int chunksSharedWith(InventorySnapshot other) {
+        int shared = 0;
+        for (int c = 0; c < sellIn.length; c++) {
+            if (nameIds[c] == other.nameIds[c] && sellIn[c] == other.sellIn[c] && quality[c] == other.quality[c]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Quantos blocos da coluna sellIn esta versão compartilha com
+     * {@code other}.
+     */
+    int sellInChunksSharedWith(InventorySnapshot other) {
+        int shared = 0;
+        for (int c = 0; c < sellIn.length; c++) {
+            if (sellIn[c] == other.sellIn[c]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    private int nameId(int index) {
+        return nameIds[index / inventory.chunkSize()][index % inventory.chunkSize()];
+    }
+
+    int[][] nameIdChunks() {
+        return nameIds;
+    }
+
+    int[][] sellInChunks() {
+        return sellIn;
+    }
+
+    int[][] qualityChunks() {
+        return quality;
+    }
+
+    boolean[] relativeSellIn() {
+        return relativeSellIn;
+    }
+}
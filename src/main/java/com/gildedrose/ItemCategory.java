@@ -0,0 +1,19 @@
+package com.gildedrose;
+
+/**
+ * Códigos de categoria atribuídos por UpdaterRegistry.withDefaults().
+ *
+ * Servem para que estruturas colunares e testes possam referir-se às
+ * categorias da loja sem resolver nomes; categorias registradas depois
+ * recebem códigos a partir de {@link #DEFAULT} + 1.
+ */
+final class ItemCategory {
+    static final short AGED_BRIE = 0;
+    static final short SULFURAS = 1;
+    static final short BACKSTAGE_PASS = 2;
+    static final short CONJURED = 3;
+    static final short DEFAULT = 4;
+
+    private ItemCategory() {
+    }
+}
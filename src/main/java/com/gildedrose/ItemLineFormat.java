@@ -0,0 +1,70 @@
+package com.gildedrose;
+
+/**
+ * Conversão entre Item e a linha de texto impressa por Item.toString():
+ * "name, sellIn, quality".
+ *
+ * O nome pode conter vírgulas ("Sulfuras, Hand of Ragnaros"), por isso os dois
+ * números são localizados a partir do fim da linha.
+ */
+final class ItemLineFormat {
+    static final String HEADER = "name, sellIn, quality";
+    static final String GREETING = "OMGHAI!";
+    private static final String DAY_PREFIX = "-------- day ";
+    private static final String DAY_SUFFIX = " --------";
+    private static final String SEPARATOR = ", ";
+
+    private ItemLineFormat() {
+    }
+
+    /**
+     * Se a linha é parte do relatório de Program e não um item: linha em
+     * branco, "OMGHAI!", "-------- day N --------" ou o cabeçalho das colunas.
+     */
+    static boolean isReportLine(String line) {
+        return line.isEmpty() || line.equals(HEADER) || line.equals(GREETING) || isDayHeader(line);
+    }
+
+    private static boolean isDayHeader(String line) {
+        int from = DAY_PREFIX.length();
+        int to = line.length() - DAY_SUFFIX.length();
+        if (to <= from || !line.startsWith(DAY_PREFIX) || !line.endsWith(DAY_SUFFIX)) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Item parse(String line) {
+        Item item = new Item(null, 0, 0);
+        parseInto(line, item);
+        return item;
+    }
+
+    /**
+     * Preenche {@code target} com os valores da linha, permitindo reaproveitar
+     * a mesma instância de Item em leituras sucessivas.
+     */
+    static void parseInto(String line, Item target) {
+        int qualityStart = line.lastIndexOf(SEPARATOR);
+        int sellInStart = qualityStart > 0 ? line.lastIndexOf(SEPARATOR, qualityStart - 1) : -1;
+        if (sellInStart < 0) {
+            throw new IllegalArgumentException("Malformed item line: " + line);
+        }
+        try {
+            target.sellIn = Integer.parseInt(line.substring(sellInStart + SEPARATOR.length(), qualityStart));
+            target.quality = Integer.parseInt(line.substring(qualityStart + SEPARATOR.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed item line: " + line, e);
+        }
+        target.name = line.substring(0, sellInStart);
+    }
+
+    static String format(Item item) {
+        return item.toString();
+    }
+}
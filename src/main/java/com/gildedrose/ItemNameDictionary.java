@@ -0,0 +1,88 @@
+package com.gildedrose;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dicionário de nomes de item: cada nome distinto recebe um id inteiro
+ * pequeno e é guardado uma única vez.
+ *
+ * Além do nome, o dicionário guarda a categoria resolvida no UpdaterRegistry
+ * para cada id, de modo que itens com o mesmo nome nunca reavaliam as regras.
+ * Se o registro ganhar novas regras, as categorias são resolvidas de novo na
+ * próxima consulta.
+ *
+ * Os métodos são sincronizados porque um mesmo dicionário pode ser
+ * compartilhado por inventários usados em threads diferentes; eles só são
+ * chamados quando um item é visto pela primeira vez, fora do caminho quente.
+ */
+final class ItemNameDictionary {
+    private final UpdaterRegistry registry;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[16];
+    private short[] categories = new short[16];
+    private int size;
+    private int registryVersion;
+
+    ItemNameDictionary() {
+        this(UpdaterRegistry.withDefaults());
+    }
+
+    ItemNameDictionary(UpdaterRegistry registry) {
+        this.registry = registry;
+        this.registryVersion = registry.version();
+    }
+
+    /**
+     * Devolve o id de {@code name}, registrando-o se ainda não existir.
+     */
+    synchronized int intern(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            categories = Arrays.copyOf(categories, size * 2);
+        }
+        names[size] = name;
+        categories[size] = registry.categoryOf(name);
+        ids.put(name, size);
+        return size++;
+    }
+
+    synchronized String name(int id) {
+        checkId(id);
+        return names[id];
+    }
+
+    synchronized short categoryOf(int id) {
+        checkId(id);
+        if (registryVersion != registry.version()) {
+            for (int i = 0; i < size; i++) {
+                categories[i] = registry.categoryOf(names[i]);
+            }
+            registryVersion = registry.version();
+        }
+        return categories[id];
+    }
+
+    ItemUpdater updaterFor(int id) {
+        return registry.updaterFor(categoryOf(id));
+    }
+
+    UpdaterRegistry registry() {
+        return registry;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown name id: " + id);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.gildedrose;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Regra declarativa de um tipo de item, no formato de uma linha de texto:
+ *
+ * <pre>
+ * # comentário
+ * prefix "Conjured" delta=-2
+ * exact "Fine Wine" delta=+1 expiredMultiplier=1 max=50
+ * exact "Eternal Flame" delta=0 sellInStep=0
+ * </pre>
+ *
+ * O primeiro campo diz como o nome é comparado (exact ou prefix) e o segundo
+ * é o nome entre aspas. Os demais são opcionais:
+ * - delta: variação diária da qualidade dentro do prazo (padrão -1)
+ * - expiredMultiplier: fator aplicado ao delta depois do vencimento (padrão 2)
+ * - min / max: limites que a variação não ultrapassa (padrão 0 e 50)
+ * - sellInStep: quanto o sellIn diminui por dia (padrão 1)
+ */
+final class ItemRule {
+    enum Match { EXACT, PREFIX }
+
+    final Match match;
+    final String pattern;
+    final int delta;
+    final int expiredMultiplier;
+    final int min;
+    final int max;
+    final int sellInStep;
+
+    ItemRule(Match match, String pattern, int delta, int expiredMultiplier, int min, int max, int sellInStep) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not exceed max: " + min + " > " + max);
+        }
+        this.match = match;
+        this.pattern = pattern;
+        this.delta = delta;
+        this.expiredMultiplier = expiredMultiplier;
+        this.min = min;
+        this.max = max;
+        this.sellInStep = sellInStep;
+    }
+
+    /**
+     * Lê uma regra por linha; linhas em branco e comentários (#) são
+     * ignorados.
+     */
+    static List<ItemRule> parseAll(String text) {
+        List<ItemRule> rules = new ArrayList<>();
+        String[] lines = text.split("\\R");
+        for (int n = 0; n < lines.length; n++) {
+            String line = lines[n].strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                rules.add(parse(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + (n + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return rules;
+    }
+
+    static ItemRule parse(String line) {
+        int open = line.indexOf('"');
+        int close = line.indexOf('"', open + 1);
+        if (open < 0 || close < 0) {
+            throw new IllegalArgumentException("Expected a quoted item name: " + line);
+        }
+        Match match = switch (line.substring(0, open).strip()) {
+            case "exact" -> Match.EXACT;
+            case "prefix" -> Match.PREFIX;
+            default -> throw new IllegalArgumentException("Expected exact or prefix: " + line);
+        };
+        String pattern = line.substring(open + 1, close);
+        int delta = -1;
+        int expiredMultiplier = 2;
+        int min = 0;
+        int max = 50;
+        int sellInStep = 1;
+        String options = line.substring(close + 1).strip();
+        for (String option : options.isEmpty() ? new String[0] : options.split("\\s+")) {
+            int eq = option.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value: " + option);
+            }
+            int value = Integer.parseInt(option.substring(eq + 1));
+            switch (option.substring(0, eq)) {
+                case "delta" -> delta = value;
+                case "expiredMultiplier" -> expiredMultiplier = value;
+                case "min" -> min = value;
+                case "max" -> max = value;
+                case "sellInStep" -> sellInStep = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        return new ItemRule(match, pattern, delta, expiredMultiplier, min, max, sellInStep);
+    }
+
+    @Override
+    public String toString() {
+        return match.name().toLowerCase() + " \"" + pattern + "\" delta=" + delta
+                + " expiredMultiplier=" + expiredMultiplier + " min=" + min + " max=" + max
+                + " sellInStep=" + sellInStep;
+    }
+}
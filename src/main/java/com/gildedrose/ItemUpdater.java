@@ -24,5 +24,90 @@ interface ItemUpdater {
      * @param item O item a ser atualizado. Pode ser modificado in-place.
      */
     void update(Item item);
+
+    /**
+     * Atualiza em lote os itens {@code items[indices[from]]} até
+     * {@code items[indices[to - 1]]}, todos da categoria deste updater.
+     *
+     * Os updaters da loja repetem este laço na própria classe: assim a
+     * chamada a update(Item) dentro dele é monomórfica e o JIT consegue
+     * inlinear e desenrolar o laço, o que não acontece com um único laço
+     * compartilhado por todas as implementações.
+     */
+    default void updateAll(Item[] items, int[] indices, int from, int to) {
+        for (int i = from; i < to; i++) {
+            update(items[indices[i]]);
+        }
+    }
+
+    /**
+     * Qualidade após um dia, calculada a partir de valores primitivos.
+     * Usada pelas estruturas colunares, que não materializam um Item.
+     *
+     * A implementação padrão delega para update(Item) com um item sem nome;
+     * os updaters da loja sobrescrevem para não alocar.
+     */
+    default int updatedQuality(int sellIn, int quality) {
+        Item item = new Item(null, sellIn, quality);
+        update(item);
+        return item.quality;
+    }
+
+    /**
+     * sellIn após um dia, calculado a partir do valor primitivo.
+     */
+    default int updatedSellIn(int sellIn) {
+        Item item = new Item(null, sellIn, 0);
+        update(item);
+        return item.sellIn;
+    }
+
+    /**
+     * Indica se a qualidade chegou a um ponto fixo: nenhum dia futuro a
+     * altera e só o sellIn continua contando. Usado por IncrementalInventory
+     * para deixar de visitar o item. Por padrão nenhum estado é considerado
+     * estável.
+     */
+    default boolean isSettled(int sellIn, int quality) {
+        return false;
+    }
+
+    /**
+     * Avança o item {@code days} dias de uma só vez, com o mesmo resultado de
+     * chamar update(Item) {@code days} vezes.
+     *
+     * @param days número de dias, maior ou igual a zero
+     */
+    default void advance(Item item, int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        int sellIn = item.sellIn;
+        item.quality = advancedQuality(sellIn, item.quality, days);
+        item.sellIn = advancedSellIn(sellIn, days);
+    }
+
+    /**
+     * Qualidade após {@code days} dias. A implementação padrão repete
+     * updatedQuality dia a dia; os updaters da loja usam a forma fechada das
+     * suas regras (lineares por trechos, limitadas a 0 e 50) e custam O(1).
+     */
+    default int advancedQuality(int sellIn, int quality, int days) {
+        for (int day = 0; day < days; day++) {
+            quality = updatedQuality(sellIn, quality);
+            sellIn = updatedSellIn(sellIn);
+        }
+        return quality;
+    }
+
+    /**
+     * sellIn após {@code days} dias.
+     */
+    default int advancedSellIn(int sellIn, int days) {
+        for (int day = 0; day < days; day++) {
+            sellIn = updatedSellIn(sellIn);
+        }
+        return sellIn;
+    }
 }
 
@@ -0,0 +1,449 @@
+package com.gildedrose;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coordenador do modo particionado: divide o inventário entre vários
+ * PartitionWorker (em geral outros processos) e os comanda pelo protocolo
+ * descrito em PartitionWorker.
+ *
+ * Cada item vai para a partição dada pelo hash da sua posição no catálogo, o
+ * que espalha as categorias de forma uniforme e permite devolver os valores
+ * na ordem original. Os comandos são enviados a todos os workers antes de
+ * ler qualquer resposta, então as partições trabalham ao mesmo tempo sem
+ * threads no coordenador. As respostas de todos os workers são sempre lidas,
+ * mesmo depois de um ERROR, para que nenhuma sessão fique com uma resposta
+ * pendente; as falhas são reunidas em uma única IOException.
+ *
+ * MEMÓRIA: load lê os itens de um ItemSource e os envia conforme lê; fetch
+ * intercala as respostas dos workers na ordem do catálogo e as entrega a um
+ * ItemSink. O coordenador guarda só um contador por worker, então o catálogo
+ * inteiro só precisa caber na soma dos workers. load(Item[]) e
+ * fetchInto(Item[]) são atalhos para quem já tem o array.
+ *
+ * FALHAS: cada conexão tem tempo limite para conectar e para cada leitura.
+ * Um ERROR do worker deixa a sessão alinhada; qualquer outra falha no meio
+ * de um comando (tempo esgotado, conexão perdida, nome inválido ou erro do
+ * source/sink) deixa as sessões em estado desconhecido, e o coordenador
+ * fecha todas as conexões e recusa novos comandos.
+ */
+final class PartitionCoordinator implements AutoCloseable {
+    static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    static final Duration DEFAULT_READ_TIMEOUT = Duration.ofMinutes(1);
+    // Limite de writeUTF: o tamanho em UTF-8 modificado vai em 2 bytes
+    private static final int MAX_NAME_BYTES = 65_535;
+
+    /**
+     * Fornece os itens do catálogo em ordem, preenchendo {@code into}.
+     */
+    @FunctionalInterface
+    interface ItemSource {
+        /**
+         * @return false quando o catálogo acabou
+         */
+        boolean next(Item into) throws IOException;
+
+        /**
+         * Lê linhas "name, sellIn, quality", ignorando as linhas de
+         * relatório de Program.
+         */
+        static ItemSource fromText(BufferedReader reader) {
+            return into -> {
+                String line;
+                do {
+                    line = reader.readLine();
+                    if (line == null) {
+                        return false;
+                    }
+                } while (ItemLineFormat.isReportLine(line));
+                ItemLineFormat.parseInto(line, into);
+                return true;
+            };
+        }
+    }
+
+    /**
+     * Recebe os itens na ordem do catálogo; {@code item} é reaproveitado
+     * entre chamadas.
+     */
+    @FunctionalInterface
+    interface ItemSink {
+        void accept(long index, Item item) throws IOException;
+
+        static ItemSink toText(Writer writer) {
+            return (index, item) -> {
+                writer.write(ItemLineFormat.format(item));
+                writer.write('\n');
+            };
+        }
+    }
+
+    private final Connection[] workers;
+    private long[] counts;
+    private long loadedItems = -1;
+    private IOException aborted;
+
+    private PartitionCoordinator(Connection[] workers) {
+        this.workers = workers;
+    }
+
+    static PartitionCoordinator connect(List<InetSocketAddress> addresses) throws IOException {
+        return connect(addresses, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * @param readTimeout quanto esperar por cada leitura de uma resposta;
+     *                    deve cobrir o ADVANCE da maior partição
+     */
+    static PartitionCoordinator connect(List<InetSocketAddress> addresses, Duration connectTimeout,
+                                        Duration readTimeout) throws IOException {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        Connection[] workers = new Connection[addresses.size()];
+        try {
+            for (int w = 0; w < workers.length; w++) {
+                workers[w] = new Connection(addresses.get(w), connectTimeout, readTimeout);
+            }
+        } catch (IOException e) {
+            for (Connection worker : workers) {
+                if (worker != null) {
+                    worker.close();
+                }
+            }
+            throw e;
+        }
+        return new PartitionCoordinator(workers);
+    }
+
+    /**
+     * Inicia um PartitionWorker em outra JVM, com o mesmo java e classpath
+     * desta, e espera ele anunciar a porta.
+     */
+    static Process startLocalWorker() throws IOException {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        return new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                PartitionWorker.class.getName())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Lê a linha "LISTENING porta" de um worker iniciado por startLocalWorker.
+     */
+    static InetSocketAddress addressOf(Process worker) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(worker.getInputStream(), StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (line == null || !line.startsWith("LISTENING ")) {
+            throw new IOException("Worker did not start: " + line);
+        }
+        int port = Integer.parseInt(line.substring("LISTENING ".length()));
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+
+    int partitionOf(long index) {
+        // Hash de Fibonacci da posição: partições equilibradas e determinísticas
+        return (int) Math.unsignedMultiplyHigh(index * 0x9E3779B97F4A7C15L, workers.length);
+    }
+
+    /**
+     * Envia cada item de {@code source} para a sua partição, substituindo o
+     * que os workers tinham.
+     *
+     * @return número de itens carregados
+     */
+    long load(ItemSource source) throws IOException {
+        checkUsable();
+        // Sem load completo, as partições não correspondem mais a posições conhecidas
+        loadedItems = -1;
+        long[] loaded = new long[workers.length];
+        long index = 0;
+        try {
+            for (Connection worker : workers) {
+                worker.out.writeByte(PartitionWorker.LOAD);
+            }
+            Item item = new Item(null, 0, 0);
+            while (source.next(item)) {
+                checkName(item.name, index);
+                int w = partitionOf(index);
+                DataOutputStream out = workers[w].out;
+                out.writeBoolean(true);
+                out.writeUTF(item.name);
+                out.writeInt(item.sellIn);
+                out.writeInt(item.quality);
+                loaded[w]++;
+                index++;
+            }
+            for (Connection worker : workers) {
+                worker.out.writeBoolean(false);
+                worker.out.flush();
+            }
+            readReplies((w, in) -> { });
+        } catch (WorkerFailure e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            abort(e);
+            throw e;
+        }
+        counts = loaded;
+        loadedItems = index;
+        return index;
+    }
+
+    void load(Item[] items) throws IOException {
+        int[] next = new int[1];
+        load(into -> {
+            if (next[0] == items.length) {
+                return false;
+            }
+            Item item = items[next[0]++];
+            into.name = item.name;
+            into.sellIn = item.sellIn;
+            into.quality = item.quality;
+            return true;
+        });
+    }
+
+    /**
+     * Avança todas as partições {@code days} dias e soma os resumos.
+     */
+    PartitionStats advance(int days) throws IOException {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        checkUsable();
+        PartitionStats total = new PartitionStats();
+        try {
+            for (Connection worker : workers) {
+                worker.out.writeByte(PartitionWorker.ADVANCE);
+                worker.out.writeInt(days);
+                worker.out.flush();
+            }
+            readReplies((w, in) -> total.add(new PartitionStats(in.readLong(), in.readLong(), in.readLong(),
+                    in.readLong())));
+        } catch (WorkerFailure e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            abort(e);
+            throw e;
+        }
+        return total;
+    }
+
+    /**
+     * Entrega a {@code sink} todos os itens, na ordem em que foram
+     * carregados, lendo de cada worker só o necessário para o próximo item.
+     */
+    void fetch(ItemSink sink) throws IOException {
+        if (loadedItems < 0) {
+            throw new IllegalStateException("fetch requires a successful load first");
+        }
+        checkUsable();
+        try {
+            for (Connection worker : workers) {
+                worker.out.writeByte(PartitionWorker.FETCH);
+                worker.out.flush();
+            }
+            // Um ERROR aqui deixaria os outros workers com a resposta pela
+            // metade: qualquer falha encerra a sessão
+            for (int w = 0; w < workers.length; w++) {
+                workers[w].expectOk();
+                int count = workers[w].in.readInt();
+                if (count != counts[w]) {
+                    throw new IOException("Worker " + w + " returned " + count + " items, expected " + counts[w]);
+                }
+            }
+            Item item = new Item(null, 0, 0);
+            for (long index = 0; index < loadedItems; index++) {
+                DataInputStream in = workers[partitionOf(index)].in;
+                item.name = in.readUTF();
+                item.sellIn = in.readInt();
+                item.quality = in.readInt();
+                sink.accept(index, item);
+            }
+        } catch (IOException | RuntimeException e) {
+            abort(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Copia sellIn e quality das partições de volta para {@code items}, nas
+     * posições usadas no último load().
+     */
+    void fetchInto(Item[] items) throws IOException {
+        if (loadedItems >= 0 && items.length != loadedItems) {
+            throw new IllegalArgumentException("Loaded " + loadedItems + " items but got " + items.length);
+        }
+        fetch((index, item) -> {
+            items[(int) index].sellIn = item.sellIn;
+            items[(int) index].quality = item.quality;
+        });
+    }
+
+    /**
+     * Pede a todos os workers que encerrem.
+     */
+    void shutdown() throws IOException {
+        checkUsable();
+        try {
+            for (Connection worker : workers) {
+                worker.out.writeByte(PartitionWorker.SHUTDOWN);
+                worker.out.flush();
+            }
+            readReplies((w, in) -> { });
+        } catch (WorkerFailure e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            abort(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Lê a resposta de cada worker, na ordem, mesmo que alguma seja ERROR; a
+     * primeira é lançada ao final com as demais como suprimidas. Outras
+     * falhas interrompem a leitura.
+     */
+    private void readReplies(Reply reply) throws IOException {
+        WorkerFailure failure = null;
+        for (int w = 0; w < workers.length; w++) {
+            try {
+                workers[w].expectOk();
+                reply.read(w, workers[w].in);
+            } catch (WorkerFailure e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void checkName(String name, long index) {
+        if (name == null) {
+            throw new IllegalArgumentException("Item " + index + " has no name");
+        }
+        // Cada char ocupa no máximo 3 bytes: só nomes longos precisam da conta exata
+        if (name.length() * 3L <= MAX_NAME_BYTES) {
+            return;
+        }
+        long bytes = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            bytes += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        if (bytes > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name of item " + index + " is " + bytes
+                    + " bytes long, the limit is " + MAX_NAME_BYTES);
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (aborted != null) {
+            throw new IOException("Partition session was aborted; reconnect to the workers", aborted);
+        }
+    }
+
+    /**
+     * Fecha todas as conexões depois de uma falha no meio de um comando.
+     */
+    private void abort(Exception cause) {
+        aborted = cause instanceof IOException io ? io : new IOException(cause);
+        loadedItems = -1;
+        for (Connection worker : workers) {
+            try {
+                worker.close();
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Reply {
+        void read(int worker, DataInputStream in) throws IOException;
+    }
+
+    @Override
+    public void close() throws IOException {
+        List<IOException> failures = new ArrayList<>();
+        for (Connection worker : workers) {
+            try {
+                worker.close();
+            } catch (IOException e) {
+                failures.add(e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+    }
+
+    /**
+     * ERROR respondido pelo worker: a resposta foi lida inteira e a sessão
+     * continua alinhada.
+     */
+    private static final class WorkerFailure extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        WorkerFailure(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Connection {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Connection(InetSocketAddress address, Duration connectTimeout, Duration readTimeout) throws IOException {
+            socket = new Socket();
+            try {
+                socket.connect(address, Math.toIntExact(connectTimeout.toMillis()));
+                socket.setSoTimeout(Math.toIntExact(readTimeout.toMillis()));
+                socket.setTcpNoDelay(true);
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        void expectOk() throws IOException {
+            byte status = in.readByte();
+            if (status == PartitionWorker.ERROR) {
+                throw new WorkerFailure("Worker " + socket.getRemoteSocketAddress() + " failed: " + in.readUTF());
+            }
+            if (status != PartitionWorker.OK) {
+                throw new IOException("Unexpected worker reply " + status);
+            }
+        }
+
+        void close() throws IOException {
+            socket.close();
+        }
+    }
+}
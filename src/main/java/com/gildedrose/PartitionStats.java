@@ -0,0 +1,59 @@
+package com.gildedrose;
+
+/**
+ * Resumo de uma partição (ou da soma de todas) depois de um ADVANCE.
+ */
+final class PartitionStats {
+    private long items;
+    private long qualitySum;
+    private long expired;
+    private long zeroQuality;
+
+    PartitionStats() {
+    }
+
+    PartitionStats(long items, long qualitySum, long expired, long zeroQuality) {
+        this.items = items;
+        this.qualitySum = qualitySum;
+        this.expired = expired;
+        this.zeroQuality = zeroQuality;
+    }
+
+    static PartitionStats of(Item[] items) {
+        PartitionStats stats = new PartitionStats();
+        for (Item item : items) {
+            stats.items++;
+            stats.qualitySum += item.quality;
+            if (item.sellIn < 0) {
+                stats.expired++;
+            }
+            if (item.quality == 0) {
+                stats.zeroQuality++;
+            }
+        }
+        return stats;
+    }
+
+    public long items() {
+        return items;
+    }
+
+    public long qualitySum() {
+        return qualitySum;
+    }
+
+    public long expired() {
+        return expired;
+    }
+
+    public long zeroQuality() {
+        return zeroQuality;
+    }
+
+    void add(PartitionStats other) {
+        items += other.items;
+        qualitySum += other.qualitySum;
+        expired += other.expired;
+        zeroQuality += other.zeroQuality;
+    }
+}
@@ -0,0 +1,138 @@
+package com.gildedrose;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Processo de trabalho do modo particionado: guarda uma partição do
+ * inventário e a atualiza com GildedRose, sob comando de um
+ * PartitionCoordinator.
+ *
+ * PROTOCOLO (DataInput/DataOutput, big-endian), um comando por vez:
+ * • LOAD: por item, true e (UTF nome, int sellIn, int quality); false no
+ *   fim → OK. O total não vai antes: o coordenador lê o catálogo enquanto
+ *   envia
+ * • ADVANCE: int dias → OK, long itens, long soma das qualidades,
+ *   long vencidos, long com qualidade 0
+ * • FETCH → OK, int n e n vezes (UTF nome, int sellIn, int quality), na
+ *   ordem do LOAD
+ * • SHUTDOWN → OK, e o worker encerra
+ * Em caso de erro a resposta é ERROR seguido de uma mensagem UTF. Se o
+ * coordenador fechar a conexão no meio de um comando, a sessão é descartada
+ * (um LOAD pela metade não substitui a partição) e o worker volta a esperar
+ * conexões.
+ *
+ * Uso: java com.gildedrose.PartitionWorker [porta]. Com porta 0 (padrão)
+ * uma porta livre é escolhida; a linha "LISTENING porta" é impressa assim
+ * que o worker aceita conexões.
+ */
+public class PartitionWorker {
+    static final byte LOAD = 1;
+    static final byte ADVANCE = 2;
+    static final byte FETCH = 3;
+    static final byte SHUTDOWN = 4;
+    static final byte OK = 0;
+    static final byte ERROR = -1;
+
+    private Item[] items = new Item[0];
+    private GildedRose rose = new GildedRose(items);
+
+    public static void main(String... args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        try (ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+            System.out.println("LISTENING " + server.getLocalPort());
+            System.out.flush();
+            new PartitionWorker().serve(server);
+        }
+    }
+
+    /**
+     * Atende um coordenador por vez até receber SHUTDOWN.
+     */
+    void serve(ServerSocket server) throws IOException {
+        while (true) {
+            Socket accepted = server.accept();
+            try (Socket socket = accepted) {
+                socket.setTcpNoDelay(true);
+                if (!session(socket)) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Conexão perdida no meio de um comando: espera o próximo coordenador
+            }
+        }
+    }
+
+    /**
+     * @return false se a sessão terminou com SHUTDOWN
+     */
+    private boolean session(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        while (true) {
+            byte command;
+            try {
+                command = in.readByte();
+            } catch (EOFException e) {
+                return true;
+            }
+            try {
+                if (!handle(command, in, out)) {
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                out.writeByte(ERROR);
+                out.writeUTF(String.valueOf(e.getMessage()));
+            }
+            out.flush();
+        }
+    }
+
+    private boolean handle(byte command, DataInputStream in, DataOutputStream out) throws IOException {
+        switch (command) {
+            case LOAD -> {
+                List<Item> loaded = new ArrayList<>();
+                while (in.readBoolean()) {
+                    loaded.add(new Item(in.readUTF(), in.readInt(), in.readInt()));
+                }
+                items = loaded.toArray(new Item[0]);
+                rose = new GildedRose(items);
+                out.writeByte(OK);
+            }
+            case ADVANCE -> {
+                rose.advance(in.readInt());
+                PartitionStats stats = PartitionStats.of(items);
+                out.writeByte(OK);
+                out.writeLong(stats.items());
+                out.writeLong(stats.qualitySum());
+                out.writeLong(stats.expired());
+                out.writeLong(stats.zeroQuality());
+            }
+            case FETCH -> {
+                out.writeByte(OK);
+                out.writeInt(items.length);
+                for (Item item : items) {
+                    out.writeUTF(item.name);
+                    out.writeInt(item.sellIn);
+                    out.writeInt(item.quality);
+                }
+            }
+            case SHUTDOWN -> {
+                out.writeByte(OK);
+                out.flush();
+                return false;
+            }
+            default -> throw new IllegalArgumentException("Unknown command " + command);
+        }
+        return true;
+    }
+}
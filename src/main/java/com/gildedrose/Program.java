@@ -1,10 +1,12 @@
 package com.gildedrose;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+
 public class Program {
 
 	public static void main(String... args) {
-		System.out.println("OMGHAI!");
-
 		Item[] items = new Item[] { 
 				new Item("+5 Dexterity Vest", 10, 20), 
 				new Item("Aged Brie", 2, 0),
@@ -19,14 +21,20 @@ public class Program {
 
 		GildedRose app = new GildedRose(items);
 
-		for (int i = 0; i < 31; i++) {
-			System.out.println("-------- day " + i + " --------");
-			System.out.println("name, sellIn, quality");
-			for (int j = 0; j < items.length; j++) {
-				System.out.println(items[j]);
+		// Escreve em System.out em blocos, sem uma String por item
+		InventoryReportWriter report = new InventoryReportWriter(Channels.newChannel(System.out), System.out.charset());
+		try {
+			report.writeLine("OMGHAI!");
+			for (int i = 0; i < 31; i++) {
+				report.writeDayHeader(i);
+				report.writeItems(items);
+				report.writeLine("");
+				app.updateQuality();
 			}
-			System.out.println("");
-			app.updateQuality();
+			report.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
+		System.out.flush();
 	}
 }
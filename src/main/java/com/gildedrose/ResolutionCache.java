@@ -0,0 +1,130 @@
+package com.gildedrose;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache limitado de nome → código de categoria, com despejo LRU.
+ *
+ * O espaço é dividido em segmentos pelo hash do nome; cada segmento é um
+ * LinkedHashMap em ordem de acesso protegido pelo seu próprio lock, então
+ * threads que resolvem nomes diferentes raramente disputam o mesmo lock. O
+ * LRU é aproximado: cada segmento despeja o seu menos usado ao passar da
+ * capacidade dele, e o total nunca passa de {@code maxEntries}.
+ *
+ * Cada entrada guarda a versão do UpdaterRegistry em que foi resolvida, e
+ * get só a aceita na mesma versão: um put que corre com um registro (e com o
+ * clear que ele faz) não traz de volta uma resolução antiga.
+ */
+final class ResolutionCache {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ResolutionCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        // Caches pequenos ficam em um segmento só, com LRU exato
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maxEntries / MIN_SEGMENT_SIZE)));
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        for (int s = 0; s < count; s++) {
+            // Distribui o resto para que a soma das capacidades seja maxEntries
+            segments[s] = new Segment(maxEntries / count + (s < maxEntries % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return o código em cache para {@code name} resolvido na versão
+     *         {@code version} do registro, ou -1 se ausente ou de outra versão
+     */
+    short get(String name, int version) {
+        Segment segment = segmentFor(name);
+        Resolution resolution;
+        synchronized (segment) {
+            resolution = segment.get(name);
+        }
+        if (resolution == null || resolution.version != version) {
+            misses.increment();
+            return -1;
+        }
+        hits.increment();
+        return resolution.category;
+    }
+
+    /**
+     * Guarda {@code category}, resolvida com o registro na versão
+     * {@code version} (lida antes de resolver).
+     */
+    void put(String name, short category, int version) {
+        Segment segment = segmentFor(name);
+        synchronized (segment) {
+            segment.put(name, new Resolution(category, version));
+        }
+    }
+
+    void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String name) {
+        int h = name.hashCode();
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    private record Resolution(short category, int version) {
+    }
+
+    private final class Segment extends LinkedHashMap<String, Resolution> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Resolution> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.gildedrose;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * Compila regras declarativas (ItemRule) em ItemUpdaters especializados.
+ *
+ * Cada regra vira uma árvore de MethodHandles com os seus parâmetros como
+ * constantes, e a árvore é entregue como class data a uma hidden class
+ * definida a partir de CompiledRuleTemplate. Não há interpretador no caminho
+ * quente: depois do JIT, uma regra compilada roda como um updater escrito à
+ * mão.
+ */
+final class RuleCompiler {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle SUBTRACT = find("subtract", int.class, int.class, int.class);
+    private static final MethodHandle IS_NEGATIVE = find("isNegative", boolean.class, int.class);
+    private static final MethodHandle APPLY = find("apply", int.class, int.class, int.class, int.class, int.class);
+    private static final MethodHandle ADVANCE_QUALITY = find("advanceQuality", int.class,
+            int.class, int.class, int.class, int.class, int.class, int.class, int.class, int.class);
+    private static final MethodHandle ADVANCE_SELL_IN = find("advanceSellIn", int.class,
+            int.class, int.class, int.class);
+    private static final MethodHandle SETTLED = find("settled", boolean.class,
+            int.class, int.class, int.class, int.class, int.class, int.class, int.class);
+    private static final byte[] TEMPLATE = templateBytes();
+
+    private RuleCompiler() {
+    }
+
+    /**
+     * Compila e registra as regras do texto, na ordem em que aparecem, e
+     * devolve os códigos de categoria atribuídos pelo registry.
+     */
+    static short[] registerAll(String rules, UpdaterRegistry registry) {
+        List<ItemRule> parsed = ItemRule.parseAll(rules);
+        short[] codes = new short[parsed.size()];
+        for (int i = 0; i < codes.length; i++) {
+            ItemRule rule = parsed.get(i);
+            ItemUpdater updater = compile(rule);
+            codes[i] = rule.match == ItemRule.Match.EXACT
+                    ? registry.registerExact(rule.pattern, updater)
+                    : registry.registerPrefix(rule.pattern, updater);
+        }
+        return codes;
+    }
+
+    static ItemUpdater compile(ItemRule rule) {
+        MethodHandle sellIn = sellInHandle(rule);
+        MethodHandle quality = qualityHandle(rule, sellIn);
+        int expiredDelta = rule.delta * rule.expiredMultiplier;
+        MethodHandle advancedQuality = MethodHandles.insertArguments(ADVANCE_QUALITY, 3,
+                rule.sellInStep, rule.delta, expiredDelta, rule.min, rule.max);
+        MethodHandle advancedSellIn = MethodHandles.insertArguments(ADVANCE_SELL_IN, 2, rule.sellInStep);
+        MethodHandle settled = MethodHandles.insertArguments(SETTLED, 2,
+                rule.sellInStep, rule.delta, expiredDelta, rule.min, rule.max);
+        List<MethodHandle> handles = List.of(quality, sellIn, advancedQuality, advancedSellIn, settled);
+        try {
+            Class<?> type = LOOKUP.defineHiddenClassWithClassData(TEMPLATE, handles, true)
+                    .lookupClass();
+            return (ItemUpdater) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not compile rule " + rule, e);
+        }
+    }
+
+    /**
+     * (int sellIn)int: sellIn - sellInStep.
+     */
+    static MethodHandle sellInHandle(ItemRule rule) {
+        return MethodHandles.insertArguments(SUBTRACT, 1, rule.sellInStep);
+    }
+
+    /**
+     * (int sellIn, int quality)int, montado como:
+     * apply(quality, isNegative(sellIn') ? delta * expiredMultiplier : delta, min, max)
+     */
+    static MethodHandle qualityHandle(ItemRule rule, MethodHandle sellIn) {
+        MethodHandle fresh = MethodHandles.dropArguments(
+                MethodHandles.constant(int.class, rule.delta), 0, int.class);
+        MethodHandle expired = MethodHandles.dropArguments(
+                MethodHandles.constant(int.class, rule.delta * rule.expiredMultiplier), 0, int.class);
+        MethodHandle step = MethodHandles.filterArguments(
+                MethodHandles.guardWithTest(IS_NEGATIVE, expired, fresh), 0, sellIn);
+        MethodHandle bounded = MethodHandles.insertArguments(APPLY, 2, rule.min, rule.max);
+        MethodHandle byQualityThenSellIn = MethodHandles.filterArguments(bounded, 1, step);
+        return MethodHandles.permuteArguments(byQualityThenSellIn,
+                MethodType.methodType(int.class, int.class, int.class), 1, 0);
+    }
+
+    private static int subtract(int value, int amount) {
+        return value - amount;
+    }
+
+    private static boolean isNegative(int value) {
+        return value < 0;
+    }
+
+    /**
+     * Mesma semântica dos updaters da loja: a qualidade só desce se estiver
+     * acima de {@code min} e só sobe se estiver abaixo de {@code max}, sem
+     * atravessar o limite. Itens fora da faixa (como Sulfuras, 80) ficam
+     * onde estão.
+     */
+    private static int apply(int quality, int delta, int min, int max) {
+        if (delta < 0) {
+            return quality > min ? Math.max(min, quality + delta) : quality;
+        }
+        if (delta > 0) {
+            return quality < max ? Math.min(max, quality + delta) : quality;
+        }
+        return quality;
+    }
+
+    /**
+     * Forma fechada de {@code days} dias de apply. Cada dia usa {@code delta}
+     * ou, vencido, {@code expiredDelta}; os dias de cada tipo são
+     * consecutivos (com sellInStep positivo os do prazo vêm primeiro, com
+     * negativo vêm depois), e dentro de cada trecho a variação tem um só
+     * sentido, então o trecho inteiro é uma soma limitada por min ou max.
+     */
+    private static int advanceQuality(int sellIn, int quality, int days, int step, int delta, int expiredDelta,
+                                      int min, int max) {
+        if (days <= 0) {
+            return quality;
+        }
+        if (step == 0) {
+            return applyDays(quality, sellIn < 0 ? expiredDelta : delta, days, min, max);
+        }
+        if (step > 0) {
+            // Dia k no prazo enquanto sellIn - k * step >= 0
+            long fresh = sellIn < 0 ? 0 : Math.min(days, sellIn / step);
+            quality = applyDays(quality, delta, fresh, min, max);
+            return applyDays(quality, expiredDelta, days - fresh, min, max);
+        }
+        // sellIn cresce: os dias vencidos vêm antes, enquanto sellIn + k * |step| < 0
+        long expired = sellIn >= 0 ? 0 : Math.min(days, (-(long) sellIn - 1) / -(long) step);
+        quality = applyDays(quality, expiredDelta, expired, min, max);
+        return applyDays(quality, delta, days - expired, min, max);
+    }
+
+    private static int applyDays(int quality, int delta, long days, int min, int max) {
+        if (days == 0 || delta == 0) {
+            return quality;
+        }
+        if (delta < 0) {
+            return quality > min ? (int) Math.max(min, quality + delta * days) : quality;
+        }
+        return quality < max ? (int) Math.min(max, quality + delta * days) : quality;
+    }
+
+    private static int advanceSellIn(int sellIn, int days, int step) {
+        return sellIn - step * days;
+    }
+
+    /**
+     * Ponto fixo: nenhum dos tipos de dia que ainda podem ocorrer muda a
+     * qualidade atual.
+     */
+    private static boolean settled(int sellIn, int quality, int step, int delta, int expiredDelta,
+                                   int min, int max) {
+        boolean freshAhead = step < 0 || sellIn - step >= 0;
+        boolean expiredAhead = step > 0 || sellIn - step < 0;
+        return (!freshAhead || applyDays(quality, delta, 1, min, max) == quality)
+                && (!expiredAhead || applyDays(quality, expiredDelta, 1, min, max) == quality);
+    }
+
+    private static MethodHandle find(String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return LOOKUP.findStatic(RuleCompiler.class, name, MethodType.methodType(returnType, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static byte[] templateBytes() {
+        try (InputStream in = RuleCompiler.class.getResourceAsStream("CompiledRuleTemplate.class")) {
+            if (in == null) {
+                throw new IllegalStateException("CompiledRuleTemplate.class not found");
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
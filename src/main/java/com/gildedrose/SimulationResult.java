@@ -0,0 +1,120 @@
+package com.gildedrose;
+
+/**
+ * Agregados de uma SimulationRunner.run: por dia (0 = estado inicial),
+ * quantos itens terminaram com cada qualidade e quantos estavam vencidos.
+ *
+ * O tamanho não depende do número de itens nem de cenários: são
+ * (dias + 1) × 53 contadores de qualidade mais dois contadores de vencimento
+ * por dia. Cada qualidade de 0 a 50 tem o seu balde; as acima de 50
+ * (Sulfuras) e as negativas (só com updaters de fora da loja) ficam em um
+ * balde único cada.
+ */
+final class SimulationResult {
+    static final int MAX_QUALITY = 50;
+    private static final int ABOVE_MAX = MAX_QUALITY + 1;
+    private static final int BELOW_ZERO = MAX_QUALITY + 2;
+    private static final int BUCKETS = MAX_QUALITY + 3;
+
+    private final int days;
+    private long scenarios;
+    private final long[] quality;
+    private final long[] qualitySum;
+    private final long[] expired;
+    private final long[] newlyExpired;
+
+    SimulationResult(int days) {
+        this.days = days;
+        this.quality = new long[(days + 1) * BUCKETS];
+        this.qualitySum = new long[days + 1];
+        this.expired = new long[days + 1];
+        this.newlyExpired = new long[days + 1];
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public long scenarios() {
+        return scenarios;
+    }
+
+    /**
+     * Total de itens somados no dia, de todos os cenários.
+     */
+    public long items(int day) {
+        long total = 0;
+        for (int q = 0; q < BUCKETS; q++) {
+            total += quality[day * BUCKETS + q];
+        }
+        return total;
+    }
+
+    /**
+     * Itens com exatamente {@code value} de qualidade ao final do dia, para
+     * {@code value} entre 0 e 50; fora disso, ver aboveMaxQuality e
+     * belowZeroQuality.
+     */
+    public long qualityCount(int day, int value) {
+        if (value < 0 || value > MAX_QUALITY) {
+            throw new IllegalArgumentException("Quality outside 0.." + MAX_QUALITY + ": " + value);
+        }
+        return quality[day * BUCKETS + value];
+    }
+
+    public long aboveMaxQuality(int day) {
+        return quality[day * BUCKETS + ABOVE_MAX];
+    }
+
+    public long belowZeroQuality(int day) {
+        return quality[day * BUCKETS + BELOW_ZERO];
+    }
+
+    public double meanQuality(int day) {
+        long items = items(day);
+        return items == 0 ? 0 : (double) qualitySum[day] / items;
+    }
+
+    /**
+     * Itens com sellIn negativo ao final do dia.
+     */
+    public long expired(int day) {
+        return expired[day];
+    }
+
+    /**
+     * Itens que venceram naquele dia (sellIn passou de 0 ou mais para
+     * negativo).
+     */
+    public long newlyExpired(int day) {
+        return newlyExpired[day];
+    }
+
+    void scenarioDone() {
+        scenarios++;
+    }
+
+    void record(int day, int sellIn, int previousSellIn, int value) {
+        int bucket = value > MAX_QUALITY ? ABOVE_MAX : value < 0 ? BELOW_ZERO : value;
+        quality[day * BUCKETS + bucket]++;
+        qualitySum[day] += value;
+        if (sellIn < 0) {
+            expired[day]++;
+            if (previousSellIn >= 0) {
+                newlyExpired[day]++;
+            }
+        }
+    }
+
+    void merge(SimulationResult other) {
+        scenarios += other.scenarios;
+        for (int i = 0; i < quality.length; i++) {
+            quality[i] += other.quality[i];
+        }
+        for (int d = 0; d <= days; d++) {
+            qualitySum[d] += other.qualitySum[d];
+            expired[d] += other.expired[d];
+            newlyExpired[d] += other.newlyExpired[d];
+        }
+    }
+}
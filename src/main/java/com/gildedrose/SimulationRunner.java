@@ -0,0 +1,109 @@
+package com.gildedrose;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Executa muitos cenários "e se" de N dias em paralelo e devolve apenas os
+ * agregados (SimulationResult).
+ *
+ * Cada thread do pool pega o próximo cenário do iterador, copia os itens
+ * para colunas próprias (sellIn, quality, categoria) reaproveitadas entre
+ * cenários e simula os dias sobre elas, somando cada dia em um
+ * SimulationResult local. Os itens do cenário não são alterados e podem ser
+ * descartados assim que lidos, então o iterador pode gerar os cenários sob
+ * demanda. Ao final, os resultados das threads são somados.
+ *
+ * O registry é apenas consultado; não registre updaters durante a execução.
+ */
+final class SimulationRunner {
+    private final UpdaterRegistry registry;
+    private final ItemUpdater[] updaters;
+
+    SimulationRunner() {
+        this(UpdaterRegistry.withDefaults());
+    }
+
+    SimulationRunner(UpdaterRegistry registry) {
+        this.registry = registry;
+        this.updaters = new ItemUpdater[registry.categoryCount()];
+        for (short category = 0; category < updaters.length; category++) {
+            updaters[category] = registry.updaterFor(category);
+        }
+    }
+
+    SimulationResult run(ForkJoinPool pool, Iterator<Item[]> scenarios, int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        List<ForkJoinTask<SimulationResult>> workers = new ArrayList<>();
+        for (int w = 0; w < pool.getParallelism(); w++) {
+            workers.add(pool.submit(() -> new Worker(days).drain(scenarios)));
+        }
+        SimulationResult total = new SimulationResult(days);
+        for (ForkJoinTask<SimulationResult> worker : workers) {
+            total.merge(worker.join());
+        }
+        return total;
+    }
+
+    SimulationResult run(ForkJoinPool pool, Iterable<Item[]> scenarios, int days) {
+        return run(pool, scenarios.iterator(), days);
+    }
+
+    private static Item[] next(Iterator<Item[]> scenarios) {
+        synchronized (scenarios) {
+            return scenarios.hasNext() ? scenarios.next() : null;
+        }
+    }
+
+    private final class Worker {
+        private final SimulationResult result;
+        private final int days;
+        private int[] sellIn = new int[0];
+        private int[] quality = new int[0];
+        private short[] category = new short[0];
+
+        Worker(int days) {
+            this.days = days;
+            this.result = new SimulationResult(days);
+        }
+
+        SimulationResult drain(Iterator<Item[]> scenarios) {
+            for (Item[] items = next(scenarios); items != null; items = next(scenarios)) {
+                simulate(items);
+                result.scenarioDone();
+            }
+            return result;
+        }
+
+        private void simulate(Item[] items) {
+            int size = items.length;
+            if (sellIn.length < size) {
+                int capacity = Math.max(size, sellIn.length * 2);
+                sellIn = Arrays.copyOf(sellIn, capacity);
+                quality = Arrays.copyOf(quality, capacity);
+                category = Arrays.copyOf(category, capacity);
+            }
+            for (int i = 0; i < size; i++) {
+                sellIn[i] = items[i].sellIn;
+                quality[i] = items[i].quality;
+                category[i] = registry.categoryOf(items[i].name);
+                result.record(0, sellIn[i], sellIn[i], quality[i]);
+            }
+            for (int day = 1; day <= days; day++) {
+                for (int i = 0; i < size; i++) {
+                    ItemUpdater updater = updaters[category[i]];
+                    int previous = sellIn[i];
+                    quality[i] = updater.updatedQuality(previous, quality[i]);
+                    sellIn[i] = updater.updatedSellIn(previous);
+                    result.record(day, sellIn[i], previous, quality[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.gildedrose;
+
+import java.util.Arrays;
+
+/**
+ * Inventário versionado em blocos copy-on-write, com snapshots baratos para
+ * leitores.
+ *
+ * Os itens ficam em blocos de {@code chunkSize} linhas, uma coluna por
+ * atributo (id do nome, sellIn, quality). Um bloco publicado nunca é
+ * alterado: cada nova versão copia só os blocos de coluna com alguma linha
+ * alterada; os demais são compartilhados com a versão anterior. A nova versão
+ * é publicada de uma vez ao final do dia.
+ *
+ * SELLIN RELATIVO: os itens da loja que envelhecem (todos menos Sulfuras)
+ * perdem 1 de sellIn por dia, o que obrigaria a copiar quase todo bloco de
+ * sellIn todo dia. Para esses itens a coluna guarda sellIn + dia, constante
+ * enquanto o item segue a regra; o snapshot desconta o próprio dia na leitura.
+ * A escolha de quem é relativo só afeta quantas cópias são feitas, nunca os
+ * valores lidos.
+ *
+ * Há duas formas de alimentar o inventário: updateQuality()/set(), em que
+ * ele mesmo aplica as regras, ou publish(Item[], int), que registra o estado
+ * de um Item[] atualizado por outra pessoa; é assim que GildedRose oferece
+ * snapshots (GildedRose.enableSnapshots) sem mudar quem usa Item[].
+ *
+ * snapshot() apenas lê a versão publicada: custa O(1), nunca espera pela
+ * atualização e nunca mostra um dia pela metade.
+ */
+final class SnapshotInventory {
+    static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final ItemNameDictionary dictionary;
+    private final short[] categoryId;
+    private final String[] seenNames;
+    private final int chunkSize;
+    private volatile InventorySnapshot published;
+
+    private SnapshotInventory(Item[] items, ItemNameDictionary dictionary, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.dictionary = dictionary;
+        this.chunkSize = chunkSize;
+        this.categoryId = new short[items.length];
+        this.seenNames = new String[items.length];
+
+        int chunks = (items.length + chunkSize - 1) / chunkSize;
+        int[][] nameIds = new int[chunks][];
+        int[][] sellIn = new int[chunks][];
+        int[][] quality = new int[chunks][];
+        for (int c = 0; c < chunks; c++) {
+            int rows = Math.min(chunkSize, items.length - c * chunkSize);
+            nameIds[c] = new int[rows];
+            sellIn[c] = new int[rows];
+            quality[c] = new int[rows];
+        }
+        for (int i = 0; i < items.length; i++) {
+            int nameId = dictionary.intern(items[i].name);
+            categoryId[i] = dictionary.categoryOf(nameId);
+            seenNames[i] = items[i].name;
+            nameIds[i / chunkSize][i % chunkSize] = nameId;
+            sellIn[i / chunkSize][i % chunkSize] = items[i].sellIn;
+            quality[i / chunkSize][i % chunkSize] = items[i].quality;
+        }
+        this.published = new InventorySnapshot(this, 0, nameIds, sellIn, quality, withRelativeFlags(new boolean[0]));
+    }
+
+    static SnapshotInventory fromItems(Item[] items) {
+        return new SnapshotInventory(items, new ItemNameDictionary(), DEFAULT_CHUNK_SIZE);
+    }
+
+    static SnapshotInventory fromItems(Item[] items, ItemNameDictionary dictionary, int chunkSize) {
+        return new SnapshotInventory(items, dictionary, chunkSize);
+    }
+
+    /**
+     * Visão imutável do último dia publicado.
+     */
+    public InventorySnapshot snapshot() {
+        return published;
+    }
+
+    public synchronized void updateQuality() {
+        InventorySnapshot current = published;
+        int day = current.day() + 1;
+        int[][] sellIn = current.sellInChunks().clone();
+        int[][] quality = current.qualityChunks().clone();
+        for (int c = 0; c < sellIn.length; c++) {
+            updateChunk(c, current, day, sellIn, quality);
+        }
+        published = new InventorySnapshot(this, day, current.nameIdChunks(), sellIn, quality,
+                current.relativeSellIn());
+    }
+
+    /**
+     * Grava novos valores para um item; apenas os blocos dele são copiados.
+     */
+    public synchronized void set(int index, int sellIn, int quality) {
+        InventorySnapshot current = published;
+        int chunk = index / chunkSize;
+        int row = index % chunkSize;
+        int offset = current.relativeSellIn()[current.nameIdChunks()[chunk][row]] ? current.day() : 0;
+        int[][] sellInChunks = current.sellInChunks().clone();
+        int[][] qualityChunks = current.qualityChunks().clone();
+        sellInChunks[chunk] = sellInChunks[chunk].clone();
+        qualityChunks[chunk] = qualityChunks[chunk].clone();
+        sellInChunks[chunk][row] = sellIn + offset;
+        qualityChunks[chunk][row] = quality;
+        published = new InventorySnapshot(this, current.day(), current.nameIdChunks(), sellInChunks, qualityChunks,
+                current.relativeSellIn());
+    }
+
+    /**
+     * Publica como nova versão o estado atual de {@code items}, {@code days}
+     * dias depois da versão anterior. Os itens devem ser os mesmos, na mesma
+     * ordem, usados na criação; nomes trocados são resolvidos de novo.
+     */
+    public synchronized void publish(Item[] items, int days) {
+        if (items.length != size()) {
+            throw new IllegalArgumentException("Expected " + size() + " items but got " + items.length);
+        }
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        InventorySnapshot current = published;
+        int day = current.day() + days;
+        int[][] nameIds = current.nameIdChunks().clone();
+        int[][] sellIn = current.sellInChunks().clone();
+        int[][] quality = current.qualityChunks().clone();
+        boolean[] relative = current.relativeSellIn();
+        for (int c = 0; c < nameIds.length; c++) {
+            boolean namesCopied = false;
+            boolean sellInCopied = false;
+            boolean qualityCopied = false;
+            int first = c * chunkSize;
+            for (int row = 0; row < nameIds[c].length; row++) {
+                Item item = items[first + row];
+                int nameId = nameIds[c][row];
+                if (item.name != seenNames[first + row]) {
+                    nameId = dictionary.intern(item.name);
+                    seenNames[first + row] = item.name;
+                    categoryId[first + row] = dictionary.categoryOf(nameId);
+                    if (nameId >= relative.length) {
+                        relative = withRelativeFlags(relative);
+                    }
+                    if (nameId != nameIds[c][row]) {
+                        if (!namesCopied) {
+                            nameIds[c] = nameIds[c].clone();
+                            namesCopied = true;
+                        }
+                        nameIds[c][row] = nameId;
+                    }
+                }
+                int storedSellIn = item.sellIn + (relative[nameId] ? day : 0);
+                if (storedSellIn != sellIn[c][row]) {
+                    if (!sellInCopied) {
+                        sellIn[c] = sellIn[c].clone();
+                        sellInCopied = true;
+                    }
+                    sellIn[c][row] = storedSellIn;
+                }
+                if (item.quality != quality[c][row]) {
+                    if (!qualityCopied) {
+                        quality[c] = quality[c].clone();
+                        qualityCopied = true;
+                    }
+                    quality[c][row] = item.quality;
+                }
+            }
+        }
+        published = new InventorySnapshot(this, day, nameIds, sellIn, quality, relative);
+    }
+
+    String name(int nameId) {
+        return dictionary.name(nameId);
+    }
+
+    int size() {
+        return categoryId.length;
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Atualiza o bloco {@code c}, copiando cada coluna só na primeira linha
+     * em que ela mudar.
+     */
+    private void updateChunk(int c, InventorySnapshot current, int day, int[][] sellInChunks, int[][] qualityChunks) {
+        int[] names = current.nameIdChunks()[c];
+        boolean[] relative = current.relativeSellIn();
+        UpdaterRegistry registry = dictionary.registry();
+        int[] sellIn = sellInChunks[c];
+        int[] quality = qualityChunks[c];
+        boolean sellInCopied = false;
+        boolean qualityCopied = false;
+        int first = c * chunkSize;
+        for (int row = 0; row < sellIn.length; row++) {
+            ItemUpdater updater = registry.updaterFor(categoryId[first + row]);
+            boolean isRelative = relative[names[row]];
+            int currentSellIn = sellIn[row] - (isRelative ? current.day() : 0);
+            int newQuality = updater.updatedQuality(currentSellIn, quality[row]);
+            int storedSellIn = updater.updatedSellIn(currentSellIn) + (isRelative ? day : 0);
+            if (storedSellIn != sellIn[row]) {
+                if (!sellInCopied) {
+                    sellIn = sellIn.clone();
+                    sellInChunks[c] = sellIn;
+                    sellInCopied = true;
+                }
+                sellIn[row] = storedSellIn;
+            }
+            if (newQuality != quality[row]) {
+                if (!qualityCopied) {
+                    quality = quality.clone();
+                    qualityChunks[c] = quality;
+                    qualityCopied = true;
+                }
+                quality[row] = newQuality;
+            }
+        }
+    }
+
+    /**
+     * Estende a tabela de sellIn relativo até os ids que o dicionário já
+     * conhece: um id é relativo se o seu updater for um dos da loja que
+     * envelhecem um dia por dia. A tabela só cresce, por cópia, e um id nunca
+     * muda de marcação: snapshots antigos continuam lendo a tabela que
+     * publicaram.
+     */
+    private boolean[] withRelativeFlags(boolean[] relative) {
+        boolean[] grown = Arrays.copyOf(relative, dictionary.size());
+        for (int id = relative.length; id < grown.length; id++) {
+            byte kernel = ColumnarInventory.kernelOf(dictionary.updaterFor(id));
+            grown[id] = kernel != ColumnarInventory.SCALAR_KERNEL && kernel != ColumnarInventory.FIXED_KERNEL;
+        }
+        return grown;
+    }
+}
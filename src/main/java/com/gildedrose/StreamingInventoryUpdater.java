@@ -0,0 +1,104 @@
+package com.gildedrose;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Envelhece um catálogo gravado em texto (uma linha "name, sellIn, quality"
+ * por item) sem carregá-lo inteiro na memória.
+ *
+ * As linhas são lidas em blocos de {@code chunkSize} itens; cada bloco é
+ * avançado pelas regras de GildedRose e gravado antes do próximo ser lido. Os
+ * objetos Item do bloco são reaproveitados, então o heap usado depende apenas
+ * do tamanho do bloco, não do arquivo. As linhas de relatório impressas por
+ * Program (saudação, cabeçalhos de dia e de colunas, linhas em branco) são
+ * ignoradas, então a saída de Program pode ser lida diretamente.
+ *
+ * Dentro de um bloco os nomes passam por um ItemNameDictionary: cada nome
+ * distinto do bloco é avaliado pelas regras uma única vez. O dicionário e a
+ * GildedRose são descartados ao fim de cada bloco, então a memória não cresce
+ * com os nomes distintos do arquivo. Entre blocos, quem quiser evitar
+ * reavaliar nomes repetidos liga o ResolutionCache do registro, que é
+ * limitado.
+ */
+final class StreamingInventoryUpdater {
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final int chunkSize;
+    private final UpdaterRegistry registry;
+
+    StreamingInventoryUpdater() {
+        this(DEFAULT_CHUNK_SIZE, UpdaterRegistry.withDefaults());
+    }
+
+    StreamingInventoryUpdater(int chunkSize, UpdaterRegistry registry) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.registry = registry;
+    }
+
+    /**
+     * @return número de itens processados
+     */
+    long process(Path input, Path output, int days) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            return process(reader, writer, days);
+        }
+    }
+
+    long process(Reader input, Writer output, int days) throws IOException {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative: " + days);
+        }
+        BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+        Item[] chunk = new Item[chunkSize];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = new Item(null, 0, 0);
+        }
+        ItemNameDictionary names = new ItemNameDictionary(registry);
+
+        long processed = 0;
+        int count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (ItemLineFormat.isReportLine(line)) {
+                continue;
+            }
+            Item item = chunk[count++];
+            ItemLineFormat.parseInto(line, item);
+            // Mesma instância de String para o mesmo nome dentro do bloco
+            item.name = names.name(names.intern(item.name));
+            if (count == chunk.length) {
+                new GildedRose(chunk, names).advance(days);
+                write(chunk, count, output);
+                processed += count;
+                count = 0;
+                names = new ItemNameDictionary(registry);
+            }
+        }
+        if (count > 0) {
+            new GildedRose(Arrays.copyOf(chunk, count), names).advance(days);
+            write(chunk, count, output);
+            processed += count;
+        }
+        output.flush();
+        return processed;
+    }
+
+    private static void write(Item[] chunk, int count, Writer output) throws IOException {
+        for (int i = 0; i < count; i++) {
+            output.write(ItemLineFormat.format(chunk[i]));
+            output.write('\n');
+        }
+    }
+}
@@ -5,4 +5,34 @@ class SulfurasUpdater implements ItemUpdater {
     public void update(Item item) {
         // Sulfuras ainda não possuem regras de atualização, então não é necessário implementar nada aqui.
     }
+
+    @Override
+    public void updateAll(Item[] items, int[] indices, int from, int to) {
+        // Nada a fazer para nenhum item do lote.
+    }
+
+    @Override
+    public int updatedQuality(int sellIn, int quality) {
+        return quality;
+    }
+
+    @Override
+    public int updatedSellIn(int sellIn) {
+        return sellIn;
+    }
+
+    @Override
+    public boolean isSettled(int sellIn, int quality) {
+        return true;
+    }
+
+    @Override
+    public int advancedQuality(int sellIn, int quality, int days) {
+        return quality;
+    }
+
+    @Override
+    public int advancedSellIn(int sellIn, int days) {
+        return sellIn;
+    }
 }
@@ -0,0 +1,114 @@
+package com.gildedrose;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uma GildedRose instrumentada, por categoria do
+ * UpdaterRegistry: itens atualizados, itens que chegaram a um limite de
+ * qualidade (0 ou 50) na execução e itens vencidos (sellIn negativo).
+ * limitsReached conta a chegada ao limite, não o corte pelo limite: um item
+ * que desce exatamente de 1 para 0, ou um Backstage zerado depois do show,
+ * também conta; um item que já estava no limite e lá ficou não conta de
+ * novo. Também
+ * mede quantas vezes o updater de uma posição precisou ser resolvido e o
+ * tempo gasto nisso.
+ *
+ * Os contadores são LongAdder, então o modo paralelo pode somar de várias
+ * threads sem disputa. Com as métricas desligadas a GildedRose não toca
+ * nesta classe.
+ */
+final class UpdateMetrics {
+    private LongAdder[] items = new LongAdder[0];
+    private LongAdder[] limitsReached = new LongAdder[0];
+    private LongAdder[] expired = new LongAdder[0];
+    private final LongAdder resolutions = new LongAdder();
+    private final LongAdder resolutionNanos = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+
+    public long itemsUpdated(short category) {
+        return sum(items, category);
+    }
+
+    public long limitsReached(short category) {
+        return sum(limitsReached, category);
+    }
+
+    public long expired(short category) {
+        return sum(expired, category);
+    }
+
+    public long resolutions() {
+        return resolutions.sum();
+    }
+
+    public long resolutionNanos() {
+        return resolutionNanos.sum();
+    }
+
+    public long runs() {
+        return runs.sum();
+    }
+
+    public long runNanos() {
+        return runNanos.sum();
+    }
+
+    public synchronized void reset() {
+        for (int c = 0; c < items.length; c++) {
+            items[c].reset();
+            limitsReached[c].reset();
+            expired[c].reset();
+        }
+        resolutions.reset();
+        resolutionNanos.reset();
+        runs.reset();
+        runNanos.reset();
+    }
+
+    /**
+     * Garante contadores para {@code categoryCount} categorias; chamado no
+     * início de cada execução, antes de qualquer thread somar.
+     */
+    synchronized void ensureCategories(int categoryCount) {
+        if (items.length >= categoryCount) {
+            return;
+        }
+        items = grow(items, categoryCount);
+        limitsReached = grow(limitsReached, categoryCount);
+        expired = grow(expired, categoryCount);
+    }
+
+    void recordItem(short category, int previousQuality, Item item) {
+        items[category].increment();
+        if (item.quality != previousQuality && (item.quality == 0 || item.quality == 50)) {
+            limitsReached[category].increment();
+        }
+        if (item.sellIn < 0) {
+            expired[category].increment();
+        }
+    }
+
+    void recordResolution(long nanos) {
+        resolutions.increment();
+        resolutionNanos.add(nanos);
+    }
+
+    void recordRun(long nanos) {
+        runs.increment();
+        runNanos.add(nanos);
+    }
+
+    private static long sum(LongAdder[] adders, short category) {
+        return category < adders.length ? adders[category].sum() : 0;
+    }
+
+    private static LongAdder[] grow(LongAdder[] adders, int length) {
+        LongAdder[] grown = Arrays.copyOf(adders, length);
+        for (int c = adders.length; c < length; c++) {
+            grown[c] = new LongAdder();
+        }
+        return grown;
+    }
+}
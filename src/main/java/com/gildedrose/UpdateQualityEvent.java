@@ -0,0 +1,32 @@
+package com.gildedrose;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de uma execução de GildedRose.updateQuality(),
+ * updateQualityByCategory() ou advance() com métricas ligadas. A duração do
+ * evento é a duração da execução.
+ */
+@Name("com.gildedrose.UpdateQuality")
+@Label("Update Quality")
+@Category("Gilded Rose")
+@Description("Uma execução de updateQuality() sobre o inventário")
+final class UpdateQualityEvent extends Event {
+    @Label("Items")
+    int items;
+
+    @Label("Days")
+    @Description("Dias avançados nesta execução: 1, ou o argumento de advance()")
+    int days;
+
+    @Label("Parallel")
+    boolean parallel;
+
+    @Label("Resolutions")
+    @Description("Posições cujo updater precisou ser resolvido nesta execução")
+    long resolutions;
+}
@@ -0,0 +1,44 @@
+package com.gildedrose;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarefa fork-join do modo paralelo de GildedRose.
+ *
+ * Divide o intervalo de posições ao meio até ficar com no máximo
+ * {@code leafSize} itens e então atualiza a fatia sequencialmente. Como cada
+ * ItemUpdater só mexe no próprio item, as fatias são independentes. Todas
+ * as fatias somam nas mesmas métricas e chamam o mesmo hook, montados uma
+ * vez no início da execução.
+ */
+class UpdateQualityTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient GildedRose rose;
+    private final transient UpdateMetrics metrics;
+    private final transient GildedRose.ItemHook hook;
+    private final int from;
+    private final int to;
+    private final int leafSize;
+
+    UpdateQualityTask(GildedRose rose, UpdateMetrics metrics, GildedRose.ItemHook hook, int from, int to,
+                      int leafSize) {
+        this.rose = rose;
+        this.metrics = metrics;
+        this.hook = hook;
+        this.from = from;
+        this.to = to;
+        this.leafSize = leafSize;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= leafSize) {
+            rose.updateRange(from, to, 1, metrics, hook);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new UpdateQualityTask(rose, metrics, hook, from, middle, leafSize),
+                new UpdateQualityTask(rose, metrics, hook, middle, to, leafSize));
+    }
+}
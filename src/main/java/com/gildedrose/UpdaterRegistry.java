@@ -0,0 +1,216 @@
+package com.gildedrose;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registro de estratégias: associa nomes de item a um ItemUpdater através de
+ * um código de categoria compacto (short).
+ *
+ * As regras são avaliadas na ordem em que foram registradas e a primeira que
+ * casar vence; sem nenhuma correspondência, vale o updater de fallback.
+ *
+ * A busca não percorre as regras uma a uma: nomes exatos ficam em um
+ * HashMap e prefixos em uma trie. categoryOf() custa O(tamanho do nome),
+ * qualquer que seja o número de regras, e a precedência por ordem de
+ * registro é mantida comparando o número de ordem de cada regra encontrada.
+ * Novos tipos de item são adicionados com registerExact/registerPrefix, sem
+ * tocar em GildedRose.
+ *
+ * Os códigos de withDefaults() coincidem com as constantes de ItemCategory.
+ */
+final class UpdaterRegistry {
+    private ItemUpdater[] updaters = new ItemUpdater[0];
+    private final Map<String, Rule> exact = new HashMap<>();
+    private final PrefixNode prefixes = new PrefixNode();
+    private int ruleCount;
+    private ResolutionCache cache;
+    private short fallback = -1;
+    private volatile int version;
+
+    static UpdaterRegistry withDefaults() {
+        UpdaterRegistry registry = new UpdaterRegistry();
+        registry.registerExact("Aged Brie", new AgedBrieUpdater());
+        registry.registerExact("Sulfuras, Hand of Ragnaros", new SulfurasUpdater());
+        registry.registerExact("Backstage passes to a TAFKAL80ETC concert", new BackstagePassUpdater());
+        registry.registerPrefix("Conjured", new ConjuredItemUpdater());
+        registry.registerFallback(new DefaultUpdater());
+        return registry;
+    }
+
+    /**
+     * Registra um updater para itens cujo nome é exatamente {@code name}.
+     *
+     * @return o código de categoria atribuído
+     */
+    short registerExact(String name, ItemUpdater updater) {
+        short category = add(updater);
+        exact.putIfAbsent(name, new Rule(ruleCount++, category));
+        changed();
+        return category;
+    }
+
+    /**
+     * Registra um updater para itens cujo nome começa com {@code prefix}.
+     *
+     * @return o código de categoria atribuído
+     */
+    short registerPrefix(String prefix, ItemUpdater updater) {
+        short category = add(updater);
+        PrefixNode node = prefixes;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.childOrCreate(prefix.charAt(i));
+        }
+        if (node.rule == null) {
+            node.rule = new Rule(ruleCount, category);
+        }
+        ruleCount++;
+        changed();
+        return category;
+    }
+
+    /**
+     * Define o updater usado quando nenhuma regra casa com o nome.
+     *
+     * @return o código de categoria atribuído
+     */
+    short registerFallback(ItemUpdater updater) {
+        fallback = add(updater);
+        changed();
+        return fallback;
+    }
+
+    /**
+     * Passa a guardar as últimas {@code maxEntries} resoluções de nome:
+     * nomes repetidos deixam de consultar as regras. Útil para catálogos com
+     * muitos nomes distintos, em que um memo sem limite esgotaria o heap.
+     */
+    void enableResolutionCache(int maxEntries) {
+        cache = new ResolutionCache(maxEntries);
+    }
+
+    /**
+     * @return o cache ligado por enableResolutionCache, ou null
+     */
+    ResolutionCache resolutionCache() {
+        return cache;
+    }
+
+    short categoryOf(String name) {
+        ResolutionCache cache = this.cache;
+        if (cache == null) {
+            return resolve(name);
+        }
+        // A versão é lida antes de resolver: se um registro acontecer no
+        // meio, a entrada nasce com a versão antiga e nunca é servida
+        int version = this.version;
+        short category = cache.get(name, version);
+        if (category < 0) {
+            category = resolve(name);
+            cache.put(name, category, version);
+        }
+        return category;
+    }
+
+    private short resolve(String name) {
+        Rule best = exact.get(name);
+        PrefixNode node = prefixes;
+        for (int i = 0; node != null; i++) {
+            if (node.rule != null && (best == null || node.rule.order < best.order)) {
+                best = node.rule;
+            }
+            node = i < name.length() ? node.child(name.charAt(i)) : null;
+        }
+        if (best != null) {
+            return best.category;
+        }
+        if (fallback < 0) {
+            throw new IllegalStateException("No updater registered for item: " + name);
+        }
+        return fallback;
+    }
+
+    ItemUpdater updaterFor(short category) {
+        return updaters[category];
+    }
+
+    int categoryCount() {
+        return updaters.length;
+    }
+
+    /**
+     * Incrementado a cada registro; permite a quem guarda categorias em cache
+     * saber quando precisa resolvê-las de novo.
+     */
+    int version() {
+        return version;
+    }
+
+    private short add(ItemUpdater updater) {
+        if (updaters.length > Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many item categories");
+        }
+        updaters = Arrays.copyOf(updaters, updaters.length + 1);
+        updaters[updaters.length - 1] = updater;
+        return (short) (updaters.length - 1);
+    }
+
+    /**
+     * Chamado depois que a regra nova está no lugar, para que ninguém leia a
+     * versão nova e resolva ainda com as regras antigas.
+     */
+    private void changed() {
+        version++;
+        ResolutionCache cache = this.cache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static final class Rule {
+        final int order;
+        final short category;
+
+        Rule(int order, short category) {
+            this.order = order;
+            this.category = category;
+        }
+    }
+
+    /**
+     * Nó da trie de prefixos. Os filhos ficam em arrays paralelos ordenados
+     * pelo caractere, com busca binária: compacto para os poucos filhos por
+     * nó de um catálogo típico.
+     */
+    private static final class PrefixNode {
+        private char[] keys = new char[0];
+        private PrefixNode[] children = new PrefixNode[0];
+        Rule rule;
+
+        PrefixNode child(char c) {
+            int at = Arrays.binarySearch(keys, c);
+            return at >= 0 ? children[at] : null;
+        }
+
+        PrefixNode childOrCreate(char c) {
+            int at = Arrays.binarySearch(keys, c);
+            if (at >= 0) {
+                return children[at];
+            }
+            int insert = -at - 1;
+            char[] newKeys = new char[keys.length + 1];
+            PrefixNode[] newChildren = new PrefixNode[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            PrefixNode node = new PrefixNode();
+            newKeys[insert] = c;
+            newChildren[insert] = node;
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+    }
+}
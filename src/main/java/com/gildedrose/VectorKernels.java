@@ -0,0 +1,103 @@
+package com.gildedrose;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels SIMD (jdk.incubator.vector) para as colunas de ColumnarInventory.
+ *
+ * A largura vem da máquina: INTS é a espécie preferida de int, e BYTES a
+ * espécie de byte com o mesmo número de lanes (8 lanes com AVX2, 16 com
+ * AVX-512). Cada passo carrega uma linha por lane: quality e kernel são
+ * convertidos de byte para int, de forma que todas as colunas ocupem as
+ * mesmas lanes junto com sellIn. As regras das categorias da loja são aplicadas
+ * com máscaras e combinadas por categoria:
+ * • comum: -1, ou -2 depois do vencimento, sem passar de 0
+ * • Conjured: o dobro da taxa comum
+ * • Aged Brie: +1, ou +2 depois do vencimento, sem passar de 50
+ * • Backstage passes: +1/+2/+3 conforme o sellIn, zerando após o show
+ * • Sulfuras: sem alteração
+ *
+ * As máscaras vêm da coluna kernel, preenchida por ColumnarInventory.kernelOf
+ * a partir do updater que o registro associou à categoria da linha, e não do
+ * número da categoria. Linhas sem kernel (SCALAR_KERNEL), e o resto que não
+ * completa um vetor, passam pelos updaters escalares. Sem espécie de byte
+ * com a mesma contagem de lanes (vetores de 128 bits dariam bytes de 32
+ * bits), todas as linhas vão pelo caminho escalar.
+ *
+ * Esta classe só pode ser carregada com o módulo presente; quem decide usá-la
+ * é ColumnarInventory.vectorKernelsAvailable().
+ */
+final class VectorKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = byteSpecies(INTS.length());
+
+    private VectorKernels() {
+    }
+
+    /**
+     * Espécie de byte com {@code lanes} lanes, ou null se não houver forma
+     * com esse tamanho.
+     */
+    private static VectorSpecies<Byte> byteSpecies(int lanes) {
+        try {
+            return VectorSpecies.of(byte.class, VectorShape.forBitSize(lanes * Byte.SIZE));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static void updateQuality(int[] sellIn, byte[] quality, byte[] kernel, short[] categoryId, ItemUpdater[] updaters) {
+        int length = sellIn.length;
+        int upperBound = BYTES == null ? 0 : INTS.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += INTS.length()) {
+            IntVector s = IntVector.fromArray(INTS, sellIn, i);
+            IntVector q = (IntVector) ByteVector.fromArray(BYTES, quality, i).convertShape(VectorOperators.B2I, INTS, 0);
+            IntVector k = (IntVector) ByteVector.fromArray(BYTES, kernel, i).convertShape(VectorOperators.B2I, INTS, 0);
+
+            VectorMask<Integer> expired = s.compare(VectorOperators.LT, 1);
+            VectorMask<Integer> degradable = q.compare(VectorOperators.GT, 0);
+            VectorMask<Integer> improvable = q.compare(VectorOperators.LT, 50);
+            IntVector rate = IntVector.broadcast(INTS, 1).blend(2, expired);
+
+            IntVector common = q.blend(q.sub(rate).max(0), degradable);
+            IntVector conjured = q.blend(q.sub(rate.mul(2)).max(0), degradable);
+            IntVector brie = q.blend(q.add(rate).min(50), improvable);
+            IntVector backstageStep = IntVector.broadcast(INTS, 1)
+                    .add(1, s.compare(VectorOperators.LT, 11))
+                    .add(1, s.compare(VectorOperators.LT, 6));
+            IntVector backstage = q.blend(q.add(backstageStep).min(50), improvable).blend(0, expired);
+
+            VectorMask<Integer> isCommon = k.compare(VectorOperators.EQ, ColumnarInventory.COMMON_KERNEL);
+            VectorMask<Integer> isConjured = k.compare(VectorOperators.EQ, ColumnarInventory.CONJURED_KERNEL);
+            VectorMask<Integer> isBrie = k.compare(VectorOperators.EQ, ColumnarInventory.BRIE_KERNEL);
+            VectorMask<Integer> isBackstage = k.compare(VectorOperators.EQ, ColumnarInventory.BACKSTAGE_KERNEL);
+            VectorMask<Integer> ages = isCommon.or(isConjured).or(isBrie).or(isBackstage);
+
+            IntVector newQuality = q.blend(common, isCommon)
+                    .blend(conjured, isConjured)
+                    .blend(brie, isBrie)
+                    .blend(backstage, isBackstage);
+            s.sub(1, ages).intoArray(sellIn, i);
+            newQuality.convertShape(VectorOperators.I2B, BYTES, 0).reinterpretAsBytes().intoArray(quality, i);
+
+            VectorMask<Integer> custom = k.compare(VectorOperators.EQ, ColumnarInventory.SCALAR_KERNEL);
+            if (custom.anyTrue()) {
+                for (int lane = 0; lane < INTS.length(); lane++) {
+                    if (custom.laneIsSet(lane)) {
+                        ColumnarInventory.updateRow(sellIn, quality, updaters[categoryId[i + lane]], i + lane);
+                    }
+                }
+            }
+        }
+        for (; i < length; i++) {
+            ColumnarInventory.updateRow(sellIn, quality, updaters[categoryId[i]], i);
+        }
+    }
+
+}
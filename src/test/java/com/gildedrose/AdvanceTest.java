@@ -0,0 +1,72 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.NAMES;
+import static com.gildedrose.TestItems.randomItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes baseados em propriedades: para entradas aleatórias (semente fixa),
+ * advance(days) deve coincidir com o caminho iterativo dia a dia.
+ */
+public class AdvanceTest {
+
+    @Test
+    public void everyUpdaterAdvanceMatchesIterativeUpdates() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        Random random = new Random(2024);
+
+        for (int sample = 0; sample < 50_000; sample++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            ItemUpdater updater = registry.updaterFor(registry.categoryOf(name));
+            int sellIn = random.nextInt(60) - 20;
+            int quality = random.nextInt(70) - 5;
+            int days = random.nextInt(80);
+
+            Item iterative = new Item(name, sellIn, quality);
+            for (int day = 0; day < days; day++) {
+                updater.update(iterative);
+            }
+            Item closedForm = new Item(name, sellIn, quality);
+            updater.advance(closedForm, days);
+
+            assertEquals(iterative.toString(), closedForm.toString(),
+                    "advance(" + days + ") of " + new Item(name, sellIn, quality));
+        }
+    }
+
+    @Test
+    public void gildedRoseAdvanceMatchesDailyUpdates() {
+        Item[] daily = randomItems(7, 500);
+        Item[] jumped = randomItems(7, 500);
+
+        GildedRose app = new GildedRose(daily);
+        for (int day = 0; day < 365; day++) {
+            app.updateQuality();
+        }
+        new GildedRose(jumped).advance(365);
+
+        for (int i = 0; i < daily.length; i++) {
+            assertEquals(daily[i].toString(), jumped[i].toString());
+        }
+    }
+
+    @Test
+    public void hugeJumpsDoNotOverflow() {
+        Item item = new Item("Aged Brie", 10, 3);
+
+        new GildedRose(new Item[] { item }).advance(Integer.MAX_VALUE - 10);
+
+        assertEquals(50, item.quality);
+    }
+
+    @Test
+    public void negativeDaysAreRejected() {
+        GildedRose app = new GildedRose(new Item[] { new Item("foo", 1, 1) });
+
+        assertThrows(IllegalArgumentException.class, () -> app.advance(-1));
+    }
+}
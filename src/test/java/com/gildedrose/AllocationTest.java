@@ -0,0 +1,121 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.programItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Garante que o caminho quente não aloca nada em regime estável, usando os
+ * contadores de alocação por thread da JVM.
+ */
+public class AllocationTest {
+
+    private com.sun.management.ThreadMXBean threads;
+
+    @BeforeEach
+    public void enableAllocationCounters() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void updateQualityDoesNotAllocate() {
+        GildedRose app = new GildedRose(programItems());
+        app.updateQuality();
+
+        assertEquals(0, allocatedBytes(() -> {
+            for (int day = 0; day < 10_000; day++) {
+                app.updateQuality();
+            }
+        }));
+    }
+
+    @Test
+    public void groupedUpdateDoesNotAllocate() {
+        GildedRose app = new GildedRose(programItems());
+        app.updateQualityByCategory();
+
+        assertEquals(0, allocatedBytes(() -> {
+            for (int day = 0; day < 10_000; day++) {
+                app.updateQualityByCategory();
+            }
+        }));
+    }
+
+    @Test
+    public void advanceDoesNotAllocate() {
+        GildedRose app = new GildedRose(programItems());
+        app.advance(1);
+
+        assertEquals(0, allocatedBytes(() -> {
+            for (int day = 0; day < 10_000; day++) {
+                app.advance(3);
+            }
+        }));
+    }
+
+    @Test
+    public void columnarUpdatesDoNotAllocate() {
+        // Os kernels SIMD só deixam de alocar depois de compilados pelo C2, que
+        // elimina os objetos Vector temporários (scalar replacement); com -Xint
+        // ou só C1 eles alocam de verdade e o teste não se aplica
+        assumeTrue(!ColumnarInventory.vectorKernelsAvailable() || c2Available());
+        ColumnarInventory inventory = ColumnarInventory.fromItems(programItems());
+        inventory.updateQuality();
+        inventory.advance(1);
+
+        assertEquals(0, allocatedBytes(() -> {
+            for (int day = 0; day < 50_000; day++) {
+                inventory.updateQuality();
+                inventory.advance(2);
+            }
+        }));
+    }
+
+    /**
+     * Bytes alocados pela thread atual durante {@code work}, descontando o
+     * custo da própria medição.
+     *
+     * Carga de classes, compilação JIT e eventuais desotimizações podem
+     * alocar algumas dezenas de bytes nas primeiras execuções; por isso a
+     * medição é repetida e vale o menor valor. Uma alocação real do caminho
+     * quente aparece em todas as repetições.
+     */
+    private long allocatedBytes(Runnable work) {
+        long calibrationStart = threads.getCurrentThreadAllocatedBytes();
+        long calibrationEnd = threads.getCurrentThreadAllocatedBytes();
+        long overhead = calibrationEnd - calibrationStart;
+
+        long least = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 5 && least > 0; attempt++) {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            work.run();
+            long end = threads.getCurrentThreadAllocatedBytes();
+            least = Math.min(least, end - start - overhead);
+        }
+        return least;
+    }
+
+    /**
+     * Se a JVM pode chegar ao C2: há compilador JIT e os níveis do tiered
+     * compilation não foram limitados.
+     */
+    private static boolean c2Available() {
+        if (ManagementFactory.getCompilationMXBean() == null) {
+            return false;
+        }
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.equals("-Xint") || argument.equals("-XX:-UseCompiler")
+                    || (argument.startsWith("-XX:TieredStopAtLevel=") && !argument.endsWith("=4"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.randomItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class BatchUpdateTest {
+
+    @Test
+    public void groupedModeMatchesItemByItemMode() {
+        Item[] expected = randomItems(11, 5_000);
+        Item[] actual = randomItems(11, 5_000);
+        GildedRose sequential = new GildedRose(expected);
+        GildedRose grouped = new GildedRose(actual);
+
+        for (int day = 0; day < 30; day++) {
+            sequential.updateQuality();
+            grouped.updateQualityByCategory();
+        }
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].toString(), actual[i].toString());
+        }
+    }
+
+    @Test
+    public void groupsAreRebuiltWhenAnItemChangesCategory() {
+        Item[] items = new Item[] { new Item("Aged Brie", 5, 10), new Item("Elixir of the Mongoose", 5, 10) };
+        GildedRose app = new GildedRose(items);
+
+        app.updateQualityByCategory();
+        items[1].name = "Aged Brie";
+        app.updateQualityByCategory();
+
+        assertEquals(12, items[0].quality);
+        assertEquals(10, items[1].quality);
+    }
+}
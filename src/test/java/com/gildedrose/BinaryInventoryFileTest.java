@@ -0,0 +1,185 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.programItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class BinaryInventoryFileTest {
+
+    @Test
+    public void updatesRecordsInPlaceLikeGildedRose() throws IOException {
+        Path binary = Files.createTempFile("inventory", ".bin");
+        try {
+            BinaryInventoryFile.write(programItems(), binary);
+            Item[] expected = programItems();
+            GildedRose app = new GildedRose(expected);
+
+            for (int day = 0; day < 20; day++) {
+                app.updateQuality();
+                // Cada dia reabre o arquivo para provar que o estado ficou gravado nele
+                try (BinaryInventoryFile inventory = BinaryInventoryFile.open(binary)) {
+                    inventory.updateQuality();
+                }
+            }
+
+            try (BinaryInventoryFile inventory = BinaryInventoryFile.open(binary)) {
+                assertEquals(expected.length, inventory.size());
+                for (int i = 0; i < expected.length; i++) {
+                    assertEquals(expected[i].name, inventory.name(i));
+                    assertEquals(expected[i].sellIn, inventory.sellIn(i));
+                    assertEquals(expected[i].quality, inventory.quality(i));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test
+    public void storesEachNameOnce() throws IOException {
+        Path binary = Files.createTempFile("inventory", ".bin");
+        try {
+            BinaryInventoryFile.write(programItems(), binary);
+
+            // 9 registros, 6 nomes distintos
+            long dictionaryBytes = Files.size(binary) - BinaryInventoryFile.HEADER_SIZE - 9L * BinaryInventoryFile.RECORD_SIZE;
+            long distinctNameBytes = 0;
+            for (String name : new String[] {"+5 Dexterity Vest", "Aged Brie", "Elixir of the Mongoose",
+                    "Sulfuras, Hand of Ragnaros", "Backstage passes to a TAFKAL80ETC concert", "Conjured Mana Cake"}) {
+                distinctNameBytes += 4 + name.length();
+            }
+            assertEquals(distinctNameBytes, dictionaryBytes);
+        } finally {
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test
+    public void convertsFromAndToText() throws IOException {
+        Path text = Files.createTempFile("inventory", ".txt");
+        Path binary = Files.createTempFile("inventory", ".bin");
+        Path result = Files.createTempFile("inventory", ".out");
+        try {
+            List<String> lines = new ArrayList<>();
+            lines.add(ItemLineFormat.HEADER);
+            for (Item item : programItems()) {
+                lines.add(item.toString());
+            }
+            Files.write(text, lines, StandardCharsets.UTF_8);
+
+            assertEquals(9, BinaryInventoryFile.fromText(text, binary));
+            try (BinaryInventoryFile inventory = BinaryInventoryFile.open(binary)) {
+                inventory.advance(3);
+            }
+            BinaryInventoryFile.toText(binary, result);
+
+            Item[] expected = programItems();
+            new GildedRose(expected).advance(3);
+            List<String> actual = Files.readAllLines(result, StandardCharsets.UTF_8);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].toString(), actual.get(i));
+            }
+        } finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+            Files.deleteIfExists(result);
+        }
+    }
+
+    @Test
+    public void rejectsCorruptHeaderWithoutGrowingTheFile() throws IOException {
+        Path binary = Files.createTempFile("inventory", ".bin");
+        try {
+            BinaryInventoryFile.write(programItems(), binary);
+            long size = Files.size(binary);
+            // Número de registros muito maior que o arquivo
+            overwrite(binary, 8, ByteBuffer.allocate(8).putLong(0, 1_000_000L));
+
+            assertThrows(IOException.class, () -> BinaryInventoryFile.open(binary));
+            assertEquals(size, Files.size(binary));
+        } finally {
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test
+    public void rejectsUnknownNameIds() throws IOException {
+        Path binary = Files.createTempFile("inventory", ".bin");
+        try {
+            BinaryInventoryFile.write(programItems(), binary);
+            // Id de nome do segundo registro fora do dicionário
+            overwrite(binary, BinaryInventoryFile.HEADER_SIZE + BinaryInventoryFile.RECORD_SIZE,
+                    ByteBuffer.allocate(4).putInt(0, 99));
+
+            IOException e = assertThrows(IOException.class, () -> BinaryInventoryFile.open(binary));
+            assertTrue(e.getMessage().contains("name id 99"));
+        } finally {
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test
+    public void rejectsItemsWithoutName() throws IOException {
+        Path binary = Files.createTempFile("inventory", ".bin");
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> BinaryInventoryFile.write(new Item[] { new Item(null, 1, 1) }, binary));
+        } finally {
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test
+    public void convertsProgramOutput() throws IOException {
+        Path text = Files.createTempFile("inventory", ".txt");
+        Path binary = Files.createTempFile("inventory", ".bin");
+        try {
+            Files.write(text, List.of("OMGHAI!", "-------- day 0 --------", "name, sellIn, quality",
+                    "Aged Brie, 2, 0", "", "-------- day 1 --------", "name, sellIn, quality",
+                    "Aged Brie, 1, 1", ""), StandardCharsets.UTF_8);
+
+            assertEquals(2, BinaryInventoryFile.fromText(text, binary));
+        } finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test
+    public void failedConversionLeavesTheTargetUntouched() throws IOException {
+        Path text = Files.createTempFile("inventory", ".txt");
+        Path binary = Files.createTempFile("inventory", ".bin");
+        try {
+            Files.write(text, List.of("Aged Brie, 2, 0", "Elixir of the Mongoose, 5, 7", "Conjured, three, 6"),
+                    StandardCharsets.UTF_8);
+
+            assertThrows(IllegalArgumentException.class, () -> BinaryInventoryFile.fromText(text, binary));
+
+            assertEquals(0, Files.size(binary));
+            assertThrows(IOException.class, () -> BinaryInventoryFile.open(binary));
+            assertFalse(Files.exists(binary.resolveSibling(binary.getFileName() + ".tmp")));
+        } finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    private static void overwrite(Path file, long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.randomItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class ChangeFeedTest {
+    private static Item[] copyOf(Item[] items) {
+        Item[] copy = new Item[items.length];
+        for (int i = 0; i < items.length; i++) {
+            copy[i] = new Item(items[i].name, items[i].sellIn, items[i].quality);
+        }
+        return copy;
+    }
+
+    @Test
+    public void onlyQualityChangesAreEmitted() {
+        Item[] items = new Item[] {
+            new Item("Sulfuras, Hand of Ragnaros", 0, 80),
+            new Item("Elixir of the Mongoose", 5, 0),
+            new Item("Aged Brie", 2, 0),
+            new Item("Aged Brie", 2, 50)
+        };
+        GildedRose app = new GildedRose(items);
+        ChangeFeed feed = new ChangeFeed(16);
+        app.attachChangeFeed(feed);
+
+        app.updateQuality();
+
+        List<String> changes = new ArrayList<>();
+        feed.drain((index, oldSellIn, newSellIn, oldQuality, newQuality) ->
+                changes.add(index + ": " + oldSellIn + "->" + newSellIn + ", " + oldQuality + "->" + newQuality));
+        assertEquals(List.of("2: 2->1, 0->1"), changes);
+        assertEquals(0, feed.available());
+    }
+
+    @Test
+    public void replicaConsumingOnAnotherThreadStaysInSync() throws Exception {
+        Item[] items = randomItems(21, 2_000);
+        Item[] replica = copyOf(items);
+        GildedRose app = new GildedRose(items);
+        // Bem menor que as alterações de um dia: o produtor precisa esperar o consumidor
+        ChangeFeed feed = new ChangeFeed(64, 10, TimeUnit.SECONDS);
+        app.attachChangeFeed(feed);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread consumer = Thread.ofPlatform().start(() -> {
+            ChangeFeed.ChangeConsumer apply = (index, oldSellIn, newSellIn, oldQuality, newQuality) -> {
+                replica[index].sellIn = newSellIn;
+                replica[index].quality = newQuality;
+            };
+            while (!done.get() || feed.available() > 0) {
+                if (feed.drain(apply) == 0) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+
+        for (int day = 0; day < 30; day++) {
+            app.updateQuality();
+        }
+        app.advance(5);
+        done.set(true);
+        consumer.join();
+
+        // Itens cuja qualidade parou de mudar guardam o último sellIn emitido
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(items[i].quality, replica[i].quality, "item " + i);
+        }
+    }
+
+    @Test
+    public void parallelAndGroupedModesEmitTheSameChanges() {
+        Item[] sequentialItems = randomItems(4, 1_000);
+        Item[] parallelItems = copyOf(sequentialItems);
+        Item[] groupedItems = copyOf(sequentialItems);
+        GildedRose sequential = new GildedRose(sequentialItems);
+        GildedRose parallel = new GildedRose(parallelItems);
+        GildedRose grouped = new GildedRose(groupedItems);
+        parallel.enableParallelUpdates(ForkJoinPool.commonPool(), 100);
+        ChangeFeed sequentialFeed = new ChangeFeed(1_024);
+        ChangeFeed parallelFeed = new ChangeFeed(1_024);
+        ChangeFeed groupedFeed = new ChangeFeed(1_024);
+        sequential.attachChangeFeed(sequentialFeed);
+        parallel.attachChangeFeed(parallelFeed);
+        grouped.attachChangeFeed(groupedFeed);
+
+        for (int day = 0; day < 3; day++) {
+            sequential.updateQuality();
+            parallel.updateQuality();
+            grouped.updateQualityByCategory();
+            List<String> expected = drain(sequentialFeed);
+            assertEquals(expected, drain(parallelFeed));
+            assertEquals(expected, drain(groupedFeed));
+        }
+    }
+
+    @Test
+    public void metricsAndFeedObserveTheSameRun() {
+        Item[] items = new Item[] {
+            new Item("Aged Brie", 2, 0),
+            new Item("Elixir of the Mongoose", 1, 0),
+            new Item("Aged Brie", 1, 49)
+        };
+        GildedRose app = new GildedRose(items);
+        UpdateMetrics metrics = new UpdateMetrics();
+        ChangeFeed feed = new ChangeFeed(16);
+        app.enableMetrics(metrics);
+        app.attachChangeFeed(feed);
+
+        app.advance(3);
+
+        List<String> changes = new ArrayList<>();
+        feed.drain((index, oldSellIn, newSellIn, oldQuality, newQuality) ->
+                changes.add(index + ": " + oldQuality + "->" + newQuality));
+        assertEquals(List.of("0: 0->4", "2: 49->50"), changes);
+        assertEquals(2, metrics.itemsUpdated((short) 0));
+        assertEquals(1, metrics.limitsReached((short) 0));
+    }
+
+    @Test
+    public void batchesAreDelimitedAndNumbered() {
+        GildedRose app = new GildedRose(new Item[] {
+            new Item("Aged Brie", 2, 0),
+            new Item("Sulfuras, Hand of Ragnaros", 0, 80)
+        });
+        ChangeFeed feed = new ChangeFeed(16);
+        app.attachChangeFeed(feed);
+
+        app.updateQuality();
+        app.advance(2);
+
+        List<String> entries = new ArrayList<>();
+        feed.drain((index, oldSellIn, newSellIn, oldQuality, newQuality) -> entries.add(index + ": " + newQuality),
+                batch -> entries.add("end " + batch));
+        assertEquals(List.of("0: 1", "end 1", "0: 4", "end 2"), entries);
+    }
+
+    @Test
+    public void fullFeedWithoutConsumerOverflowsInsteadOfBlocking() {
+        Item[] items = new Item[] {
+            new Item("Aged Brie", 10, 0),
+            new Item("Elixir of the Mongoose", 10, 20),
+            new Item("Conjured Mana Cake", 10, 20)
+        };
+        GildedRose app = new GildedRose(items);
+        // Três alterações e o marcador enchem o buffer em um dia
+        ChangeFeed feed = new ChangeFeed(4);
+        app.attachChangeFeed(feed);
+
+        // Ninguém drena entre os dias: o segundo transborda na própria thread, sem esperar
+        long start = System.nanoTime();
+        app.updateQuality();
+        app.updateQuality();
+        app.updateQuality();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(feed.resyncRequired());
+        assertEquals(3, feed.completedBatches());
+        assertEquals(3, feed.startedBatches());
+        List<String> entries = new ArrayList<>();
+        feed.drain((index, oldSellIn, newSellIn, oldQuality, newQuality) -> entries.add(index + ": " + newQuality),
+                batch -> entries.add("end " + batch));
+        assertEquals(List.of("0: 1", "1: 19", "2: 18", "end 1"), entries);
+
+        // Uma cópia de um lote anterior não serve; a do lote 3 sim
+        assertFalse(feed.resume(2));
+        assertTrue(feed.resume(feed.completedBatches()));
+        app.updateQuality();
+
+        assertFalse(feed.resyncRequired());
+        entries.clear();
+        feed.drain((index, oldSellIn, newSellIn, oldQuality, newQuality) -> entries.add(index + ": " + newQuality),
+                batch -> entries.add("end " + batch));
+        assertEquals(List.of("0: 4", "1: 16", "2: 12", "end 4"), entries);
+    }
+
+    @Test
+    public void capacityIsRoundedToPowerOfTwo() {
+        assertEquals(1, new ChangeFeed(1).capacity());
+        assertEquals(64, new ChangeFeed(64).capacity());
+        assertEquals(128, new ChangeFeed(65).capacity());
+    }
+
+    private static List<String> drain(ChangeFeed feed) {
+        List<String> changes = new ArrayList<>();
+        feed.drain((index, oldSellIn, newSellIn, oldQuality, newQuality) ->
+                changes.add(index + ":" + oldSellIn + ":" + newSellIn + ":" + oldQuality + ":" + newQuality));
+        return changes;
+    }
+}
@@ -0,0 +1,87 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.programItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class ColumnarInventoryTest {
+
+    @Test
+    public void matchesGildedRoseForThirtyDays() {
+        Item[] expected = programItems();
+        GildedRose app = new GildedRose(expected);
+        ColumnarInventory inventory = ColumnarInventory.fromItems(programItems());
+
+        for (int day = 0; day < 30; day++) {
+            app.updateQuality();
+            inventory.updateQuality();
+
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].sellIn, inventory.sellIn(i), "sellIn of item " + i + " on day " + day);
+                assertEquals(expected[i].quality, inventory.quality(i), "quality of item " + i + " on day " + day);
+            }
+        }
+    }
+
+    @Test
+    public void advanceMatchesDailyUpdates() {
+        ColumnarInventory daily = ColumnarInventory.fromItems(programItems());
+        ColumnarInventory jumped = ColumnarInventory.fromItems(programItems());
+
+        for (int day = 0; day < 30; day++) {
+            daily.updateQuality();
+        }
+        jumped.advance(30);
+
+        for (int i = 0; i < daily.size(); i++) {
+            assertEquals(daily.sellIn(i), jumped.sellIn(i));
+            assertEquals(daily.quality(i), jumped.quality(i));
+        }
+    }
+
+    @Test
+    public void copyToWritesStateBackIntoItems() {
+        Item[] items = programItems();
+        ColumnarInventory inventory = ColumnarInventory.fromItems(items);
+
+        inventory.updateQuality();
+        inventory.copyTo(items);
+
+        assertEquals("+5 Dexterity Vest, 9, 19", items[0].toString());
+        assertEquals("Sulfuras, Hand of Ragnaros, 0, 80", items[3].toString());
+        assertEquals("Conjured Mana Cake, 2, 4", items[8].toString());
+    }
+
+    @Test
+    public void toItemsRoundTrips() {
+        Item[] items = programItems();
+        Item[] copy = ColumnarInventory.fromItems(items).toItems();
+
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(items[i].toString(), copy[i].toString());
+        }
+    }
+
+    @Test
+    public void rejectsQualityOutsideColumnRange() {
+        Item[] items = new Item[] { new Item("foo", 1, 300) };
+
+        assertThrows(IllegalArgumentException.class, () -> ColumnarInventory.fromItems(items));
+    }
+
+    @Test
+    public void updatesLeavingTheColumnRangeFailInsteadOfWrapping() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        RuleCompiler.registerAll("exact \"Fine Wine\" delta=5 max=200", registry);
+        ColumnarInventory daily = ColumnarInventory.fromItems(new Item[] { new Item("Fine Wine", 10, 125) }, registry);
+        ColumnarInventory jumped = ColumnarInventory.fromItems(new Item[] { new Item("Fine Wine", 10, 125) }, registry);
+
+        assertThrows(IllegalStateException.class, daily::updateQuality);
+        assertThrows(IllegalStateException.class, daily::updateQualityScalar);
+        assertThrows(IllegalStateException.class, () -> jumped.advance(1));
+        assertEquals(125, daily.quality(0));
+        assertEquals(10, daily.sellIn(0));
+        assertEquals(125, jumped.quality(0));
+    }
+}
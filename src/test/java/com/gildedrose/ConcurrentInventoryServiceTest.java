@@ -0,0 +1,69 @@
+package com.gildedrose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentInventoryServiceTest {
+
+    @Test
+    public void shardedUpdateMatchesGildedRose() {
+        Item[] expected = new Item[1_000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = new Item(i % 3 == 0 ? "Aged Brie" : "Elixir of the Mongoose", i % 20, i % 50);
+        }
+        try (ConcurrentInventoryService service = new ConcurrentInventoryService(expected, 7)) {
+            GildedRose app = new GildedRose(expected);
+
+            for (int day = 0; day < 25; day++) {
+                app.updateQuality();
+                service.updateQuality();
+            }
+
+            assertEquals(expected.length, service.size());
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].toString(), service.get(i).toString());
+            }
+        }
+    }
+
+    @Test
+    public void readersNeverSeeTornItems() throws InterruptedException {
+        // Aged Brie longe do vencimento: sellIn + quality é constante enquanto quality < 50
+        Item[] items = new Item[10_000];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("Aged Brie", 1_000, 0);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+
+        try (ConcurrentInventoryService service = new ConcurrentInventoryService(items, 16)) {
+            Thread[] readers = new Thread[4];
+            for (int r = 0; r < readers.length; r++) {
+                readers[r] = Thread.ofPlatform().start(() -> {
+                    int index = 0;
+                    while (running.get()) {
+                        Item item = service.get(index);
+                        if (item.sellIn + item.quality != 1_000) {
+                            torn.incrementAndGet();
+                        }
+                        index = (index + 7_919) % items.length;
+                    }
+                });
+            }
+
+            for (int day = 0; day < 40; day++) {
+                service.updateQuality();
+            }
+            running.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+
+            assertEquals(0, torn.get());
+            assertEquals("Aged Brie, 960, 40", service.get(0).toString());
+        }
+    }
+}
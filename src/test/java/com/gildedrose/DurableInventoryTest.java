@@ -0,0 +1,224 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.programItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DurableInventoryTest {
+    private Path directory;
+
+    private static void assertSameItems(Item[] expected, DurableInventory inventory) {
+        assertEquals(expected.length, inventory.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].toString(), inventory.item(i).toString());
+        }
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("durable-inventory");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void recoveryReplaysJournalOnTopOfCheckpoint() throws IOException {
+        Item[] expected = programItems();
+        GildedRose reference = new GildedRose(expected);
+        try (DurableInventory inventory = DurableInventory.create(directory, programItems(), 1_000)) {
+            for (int day = 0; day < 10; day++) {
+                inventory.updateQuality();
+                reference.updateQuality();
+            }
+            inventory.set(2, 8, 33);
+            inventory.advance(5);
+        }
+        expected[2].sellIn = 8;
+        expected[2].quality = 33;
+        reference.advance(5);
+
+        try (DurableInventory recovered = DurableInventory.open(directory, 1_000)) {
+            assertEquals(12, recovered.sequence());
+            assertSameItems(expected, recovered);
+        }
+        assertEquals(List.of("checkpoint-0.bin", "journal-0.log"), files());
+        assertEquals(12 * DurableInventory.RECORD_SIZE, Files.size(directory.resolve("journal-0.log")));
+    }
+
+    @Test
+    public void checkpointsReplaceOlderFiles() throws IOException {
+        Item[] expected = programItems();
+        try (DurableInventory inventory = DurableInventory.create(directory, programItems(), 3)) {
+            for (int day = 0; day < 10; day++) {
+                inventory.updateQuality();
+            }
+        }
+        new GildedRose(expected).advance(10);
+
+        assertEquals(List.of("checkpoint-9.bin", "journal-9.log"), files());
+        try (DurableInventory recovered = DurableInventory.open(directory, 3)) {
+            assertEquals(10, recovered.sequence());
+            assertSameItems(expected, recovered);
+        }
+    }
+
+    @Test
+    public void tornTailIsDiscarded() throws IOException {
+        Item[] expected = programItems();
+        try (DurableInventory inventory = DurableInventory.create(directory, programItems(), 1_000)) {
+            inventory.advance(3);
+            inventory.advance(4);
+        }
+        new GildedRose(expected).advance(7);
+
+        // Queda no meio da escrita: meio registro no fim do journal
+        Path journal = directory.resolve("journal-0.log");
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] { DurableInventory.ADVANCE, 0, 0, 0, 0, 0, 0, 0, 3 }));
+        }
+
+        try (DurableInventory recovered = DurableInventory.open(directory, 1_000)) {
+            assertEquals(2, recovered.sequence());
+            assertSameItems(expected, recovered);
+            recovered.updateQuality();
+        }
+        new GildedRose(expected).updateQuality();
+
+        try (DurableInventory recovered = DurableInventory.open(directory, 1_000)) {
+            assertEquals(3, recovered.sequence());
+            assertSameItems(expected, recovered);
+        }
+    }
+
+    @Test
+    public void corruptedRecordEndsReplay() throws IOException {
+        try (DurableInventory inventory = DurableInventory.create(directory, programItems(), 1_000)) {
+            inventory.updateQuality();
+            inventory.set(0, 1, 1);
+        }
+        Path journal = directory.resolve("journal-0.log");
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            // Altera o sellIn do SET sem corrigir o CRC
+            channel.write(ByteBuffer.wrap(new byte[] { 9 }), DurableInventory.RECORD_SIZE + 16);
+        }
+
+        try (DurableInventory recovered = DurableInventory.open(directory, 1_000)) {
+            assertEquals(1, recovered.sequence());
+            assertEquals("+5 Dexterity Vest, 9, 19", recovered.item(0).toString());
+        }
+    }
+
+    @Test
+    public void corruptionInTheMiddleOfTheJournalFailsRecovery() throws IOException {
+        try (DurableInventory inventory = DurableInventory.create(directory, programItems(), 1_000)) {
+            inventory.updateQuality();
+            inventory.set(0, 1, 1);
+            inventory.updateQuality();
+        }
+        Path journal = directory.resolve("journal-0.log");
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 9 }), DurableInventory.RECORD_SIZE + 16);
+        }
+
+        // Truncar aqui apagaria o terceiro registro, já confirmado
+        assertThrows(IOException.class, () -> DurableInventory.open(directory, 1_000));
+        assertEquals(3 * DurableInventory.RECORD_SIZE, Files.size(journal));
+    }
+
+    @Test
+    public void setOutsideTheInventoryFailsRecovery() throws IOException {
+        DurableInventory.create(directory, programItems(), 1_000).close();
+        ByteBuffer record = ByteBuffer.allocate(DurableInventory.RECORD_SIZE);
+        record.put(DurableInventory.SET).putLong(1).putInt(99).putInt(0).putInt(0);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, DurableInventory.RECORD_SIZE - 4);
+        record.putInt((int) crc.getValue()).flip();
+        try (FileChannel channel = FileChannel.open(directory.resolve("journal-0.log"), StandardOpenOption.APPEND)) {
+            channel.write(record);
+        }
+
+        assertThrows(IOException.class, () -> DurableInventory.open(directory, 1_000));
+    }
+
+    @Test
+    public void failedAppendStopsFurtherOperations() throws IOException {
+        Item[] expected = programItems();
+        new GildedRose(expected).advance(2);
+        try (DurableInventory inventory = DurableInventory.create(directory, programItems(), 1_000)) {
+            inventory.advance(2);
+
+            // Interromper a thread fecha o FileChannel no meio da escrita
+            Thread.currentThread().interrupt();
+            assertThrows(IOException.class, () -> inventory.advance(3));
+            Thread.interrupted();
+
+            assertThrows(IOException.class, () -> inventory.advance(1));
+            assertThrows(IOException.class, () -> inventory.set(0, 1, 1));
+            assertSameItems(expected, inventory);
+        }
+
+        try (DurableInventory recovered = DurableInventory.open(directory, 1_000)) {
+            assertEquals(1, recovered.sequence());
+            assertSameItems(expected, recovered);
+        }
+    }
+
+    @Test
+    public void failedBackgroundCheckpointDoesNotFailTheOperation() throws IOException {
+        Item[] expected = programItems();
+        new GildedRose(expected).advance(5);
+        // Um diretório no lugar do .tmp faz a gravação do checkpoint-3 falhar
+        Files.createDirectory(directory.resolve("checkpoint-3.bin.tmp"));
+        DurableInventory inventory = DurableInventory.create(directory, programItems(), 3);
+        for (int day = 0; day < 5; day++) {
+            inventory.updateQuality();
+        }
+        inventory.close();
+
+        assertNotNull(inventory.checkpointFailure());
+        assertEquals(List.of("checkpoint-0.bin", "checkpoint-3.bin.tmp", "journal-0.log", "journal-3.log"), files());
+        try (DurableInventory recovered = DurableInventory.open(directory, 3)) {
+            assertEquals(5, recovered.sequence());
+            assertSameItems(expected, recovered);
+        }
+        assertFalse(Files.exists(directory.resolve("checkpoint-3.bin.tmp")));
+    }
+
+    @Test
+    public void createRefusesExistingInventory() throws IOException {
+        DurableInventory.create(directory, programItems(), 10).close();
+
+        assertThrows(IOException.class, () -> DurableInventory.create(directory, programItems(), 10));
+        assertThrows(IOException.class, () -> DurableInventory.open(directory.resolve("missing"), 10));
+    }
+}
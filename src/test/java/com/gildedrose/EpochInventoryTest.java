@@ -0,0 +1,48 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.programItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+public class EpochInventoryTest {
+
+    @Test
+    public void readsMatchGildedRoseEveryDay() {
+        Item[] expected = programItems();
+        GildedRose app = new GildedRose(expected);
+        EpochInventory inventory = EpochInventory.fromItems(programItems());
+
+        for (int day = 0; day < 31; day++) {
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].toString(), inventory.item(i).toString(), "item " + i + " on day " + day);
+            }
+            app.updateQuality();
+            inventory.updateQuality();
+        }
+    }
+
+    @Test
+    public void setRebasesTheRowOnTheCurrentDay() {
+        EpochInventory inventory = EpochInventory.fromItems(new Item[] { new Item("Aged Brie", 2, 0) });
+        inventory.advance(10);
+
+        inventory.set(0, 4, 30);
+        inventory.advance(5);
+
+        Item expected = new Item("Aged Brie", 4, 30);
+        new GildedRose(new Item[] { expected }).advance(5);
+        assertEquals(expected.toString(), inventory.item(0).toString());
+    }
+
+    @Test
+    public void copyToMaterialisesIntoItems() {
+        Item[] items = programItems();
+        EpochInventory inventory = EpochInventory.fromItems(items);
+
+        inventory.advance(3);
+        inventory.copyTo(items);
+
+        assertEquals("+5 Dexterity Vest, 7, 17", items[0].toString());
+        assertEquals("Conjured Mana Cake, 0, 0", items[8].toString());
+    }
+}
@@ -0,0 +1,60 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.randomItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class IncrementalInventoryTest {
+
+    @Test
+    public void matchesGildedRoseAfterSync() {
+        Item[] expected = randomItems(3, 2_000);
+        Item[] actual = randomItems(3, 2_000);
+        GildedRose app = new GildedRose(expected);
+        IncrementalInventory inventory = new IncrementalInventory(actual);
+
+        for (int day = 0; day < 90; day++) {
+            app.updateQuality();
+            inventory.updateQuality();
+        }
+        inventory.sync();
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].toString(), actual[i].toString());
+        }
+    }
+
+    @Test
+    public void settledItemsLeaveTheActiveSet() {
+        Item[] items = new Item[] {
+            new Item("Sulfuras, Hand of Ragnaros", 0, 80),
+            new Item("Aged Brie", 5, 50),
+            new Item("Elixir of the Mongoose", 1, 2),
+            new Item("Backstage passes to a TAFKAL80ETC concert", 1, 20)
+        };
+        IncrementalInventory inventory = new IncrementalInventory(items);
+        assertEquals(2, inventory.activeCount());
+
+        inventory.updateQuality();
+        inventory.updateQuality();
+
+        assertEquals(0, inventory.activeCount());
+        assertEquals(5, items[1].sellIn, "settled items are not touched until materialised");
+        assertEquals("Aged Brie, 3, 50", inventory.item(1).toString());
+        assertEquals("Sulfuras, Hand of Ragnaros, 0, 80", inventory.item(0).toString());
+    }
+
+    @Test
+    public void refreshPicksUpExternalEdits() {
+        Item[] items = new Item[] { new Item("Elixir of the Mongoose", 5, 0) };
+        IncrementalInventory inventory = new IncrementalInventory(items);
+        inventory.updateQuality();
+
+        inventory.item(0).quality = 10;
+        inventory.refresh();
+        inventory.updateQuality();
+
+        assertEquals("Elixir of the Mongoose, 3, 9", inventory.item(0).toString());
+    }
+}
@@ -0,0 +1,84 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.randomItems;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class IndexedInventoryTest {
+    private static int[] scan(IndexedInventory inventory, IntPredicate matches) {
+        return IntStream.range(0, inventory.size()).filter(matches).toArray();
+    }
+
+    private static int[] sorted(int[] values) {
+        int[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private static void assertMatchesScan(IndexedInventory inventory) {
+        for (int days : new int[] { 0, 1, 5, 30 }) {
+            assertArrayEquals(scan(inventory, i -> {
+                int sellIn = inventory.item(i).sellIn;
+                return sellIn >= 0 && sellIn < days;
+            }), sorted(inventory.expiringWithin(days)));
+        }
+        assertArrayEquals(scan(inventory, i -> inventory.item(i).sellIn < 0), sorted(inventory.expired()));
+        for (int threshold : new int[] { 0, 1, 10, 50, 81 }) {
+            assertArrayEquals(scan(inventory, i -> inventory.item(i).quality < threshold),
+                    sorted(inventory.qualityBelow(threshold)));
+        }
+        assertArrayEquals(scan(inventory, i -> inventory.item(i).quality >= 20 && inventory.item(i).quality < 30),
+                sorted(inventory.qualityInRange(20, 30)));
+    }
+
+    @Test
+    public void queriesMatchFullScanEveryDay() {
+        Item[] expected = randomItems(11, 500);
+        GildedRose reference = new GildedRose(expected);
+        IndexedInventory inventory = new IndexedInventory(randomItems(11, 500));
+
+        assertMatchesScan(inventory);
+        for (int day = 0; day < 40; day++) {
+            inventory.updateQuality();
+            reference.updateQuality();
+            assertMatchesScan(inventory);
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].toString(), inventory.item(i).toString());
+        }
+    }
+
+    @Test
+    public void advanceAndEditsKeepIndexesConsistent() {
+        IndexedInventory inventory = new IndexedInventory(randomItems(5, 200));
+
+        inventory.advance(7);
+        inventory.set(0, 2, 5);
+        inventory.set(1, -4, 50);
+        inventory.updateQuality();
+
+        assertMatchesScan(inventory);
+    }
+
+    @Test
+    public void sulfurasNeverExpiresWithTime() {
+        IndexedInventory inventory = new IndexedInventory(new Item[] {
+            new Item("Sulfuras, Hand of Ragnaros", 0, 80),
+            new Item("Aged Brie", 1, 0)
+        });
+
+        assertArrayEquals(new int[] { 0, 1 }, sorted(inventory.expiringWithin(2)));
+        inventory.advance(10);
+
+        // Sulfuras continua com sellIn 0; o Aged Brie já venceu
+        assertArrayEquals(new int[] { 0 }, inventory.expiringWithin(2));
+        assertArrayEquals(new int[] { 1 }, inventory.expired());
+        assertArrayEquals(new int[0], inventory.qualityBelow(19));
+    }
+}
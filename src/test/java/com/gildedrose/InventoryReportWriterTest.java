@@ -0,0 +1,108 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.programItems;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class InventoryReportWriterTest {
+
+    private static byte[] printed(Item[] items, Charset charset) {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(expected, true, charset);
+        out.println("-------- day 7 --------");
+        out.println("name, sellIn, quality");
+        for (Item item : items) {
+            out.println(item);
+        }
+        out.println("");
+        return expected.toByteArray();
+    }
+
+    private static byte[] rendered(Item[] items, Charset charset, int bufferSize) throws IOException {
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        InventoryReportWriter report = new InventoryReportWriter(Channels.newChannel(actual), charset, bufferSize);
+        report.writeDayHeader(7);
+        report.writeItems(items);
+        report.writeLine("");
+        report.flush();
+        return actual.toByteArray();
+    }
+
+    private static Item[] unusualItems() {
+        return new Item[] {
+            new Item("Sulfuras, Hand of Ragnaros", -1, 80),
+            new Item("Conjured Mana Cake", 0, 0),
+            new Item("Extremes", Integer.MIN_VALUE, Integer.MAX_VALUE),
+            new Item("Crème brûlée ★", -10, 1_000_000),
+            new Item(null, 3, -3)
+        };
+    }
+
+    @Test
+    public void matchesPrintlnByteForByte() throws IOException {
+        Item[] items = unusualItems();
+
+        assertArrayEquals(printed(items, StandardCharsets.UTF_8),
+                rendered(items, StandardCharsets.UTF_8, InventoryReportWriter.DEFAULT_BUFFER_SIZE));
+    }
+
+    @Test
+    public void namesAreEncodedInTheTargetCharset() throws IOException {
+        Item[] items = unusualItems();
+
+        // ★ não existe em ISO-8859-1: os dois lados escrevem '?'
+        assertArrayEquals(printed(items, StandardCharsets.ISO_8859_1),
+                rendered(items, StandardCharsets.ISO_8859_1, InventoryReportWriter.DEFAULT_BUFFER_SIZE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new InventoryReportWriter(Channels.newChannel(new ByteArrayOutputStream()), StandardCharsets.UTF_16));
+    }
+
+    @Test
+    public void smallBuffersFlushInBlocks() throws IOException {
+        Item[] items = new Item[200];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item("Backstage passes to a TAFKAL80ETC concert #" + i, i - 100, i % 51);
+        }
+
+        assertArrayEquals(printed(items, StandardCharsets.UTF_8), rendered(items, StandardCharsets.UTF_8, 32));
+    }
+
+    @Test
+    public void programOutputIsUnchanged() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(captured));
+            Program.main();
+        } finally {
+            System.setOut(original);
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(expected);
+        Item[] items = programItems();
+        GildedRose app = new GildedRose(items);
+        out.println("OMGHAI!");
+        for (int i = 0; i < 31; i++) {
+            out.println("-------- day " + i + " --------");
+            out.println("name, sellIn, quality");
+            for (Item item : items) {
+                out.println(item);
+            }
+            out.println("");
+            app.updateQuality();
+        }
+
+        assertEquals(expected.toString(), captured.toString());
+    }
+}
@@ -0,0 +1,85 @@
+package com.gildedrose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class ItemNameDictionaryTest {
+
+    @Test
+    public void equalNamesShareOneId() {
+        ItemNameDictionary dictionary = new ItemNameDictionary();
+
+        int first = dictionary.intern("Aged Brie");
+        int second = dictionary.intern(new String("Aged Brie"));
+        int other = dictionary.intern("Conjured Mana Cake");
+
+        assertEquals(first, second);
+        assertEquals(2, dictionary.size());
+        assertEquals(ItemCategory.AGED_BRIE, dictionary.categoryOf(first));
+        assertEquals(ItemCategory.CONJURED, dictionary.categoryOf(other));
+    }
+
+    @Test
+    public void gildedRoseDispatchesOnNameIdsWithoutTouchingItems() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        // Conta as consultas às regras: uma por nome distinto
+        registry.enableResolutionCache(16);
+        ItemNameDictionary dictionary = new ItemNameDictionary(registry);
+        String first = new String("Aged Brie");
+        String second = new String("Aged Brie");
+        Item[] items = new Item[] {
+            new Item(first, 5, 10),
+            new Item(second, 3, 20),
+            new Item("Elixir of the Mongoose", 5, 7)
+        };
+        GildedRose app = new GildedRose(items, dictionary);
+
+        app.updateQuality();
+        app.updateQuality();
+
+        assertSame(first, items[0].name);
+        assertSame(second, items[1].name);
+        assertEquals(12, items[0].quality);
+        assertEquals(22, items[1].quality);
+        assertEquals(5, items[2].quality);
+        assertEquals(2, dictionary.size());
+        assertEquals(2, registry.resolutionCache().misses());
+    }
+
+    @Test
+    public void parallelModeResolvesNamesThroughTheDictionary() {
+        ItemNameDictionary dictionary = new ItemNameDictionary();
+        Item[] items = new Item[5_000];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item(i % 2 == 0 ? "Aged Brie" : "Conjured #" + (i % 7), 5, 10);
+        }
+        GildedRose app = new GildedRose(items, dictionary);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        app.enableParallelUpdates(pool, 100);
+
+        try {
+            app.updateQuality();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(11, items[0].quality);
+        assertEquals(8, items[1].quality);
+    }
+
+    @Test
+    public void categoriesFollowRegistryChanges() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        ItemNameDictionary dictionary = new ItemNameDictionary(registry);
+        int id = dictionary.intern("Enchanted Shield");
+        assertEquals(ItemCategory.DEFAULT, dictionary.categoryOf(id));
+
+        short enchanted = registry.registerExact("Enchanted Shield", new SulfurasUpdater());
+
+        assertEquals(enchanted, dictionary.categoryOf(id));
+    }
+}
@@ -0,0 +1,70 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.randomItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+public class ParallelUpdateTest {
+
+    @Test
+    public void parallelModeMatchesSequentialMode() {
+        Item[] expected = randomItems(42, 20_000);
+        Item[] actual = randomItems(42, 20_000);
+        GildedRose sequential = new GildedRose(expected);
+        GildedRose parallel = new GildedRose(actual);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        parallel.enableParallelUpdates(pool, 1_000);
+
+        try {
+            for (int day = 0; day < 40; day++) {
+                sequential.updateQuality();
+                parallel.updateQuality();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].toString(), actual[i].toString());
+        }
+    }
+
+    @Test
+    public void smallInventoryStaysSequentialBelowThreshold() {
+        Thread[] updatedOn = new Thread[1];
+        UpdaterRegistry registry = new UpdaterRegistry();
+        registry.registerFallback(item -> updatedOn[0] = Thread.currentThread());
+        GildedRose app = new GildedRose(new Item[] { new Item("Aged Brie", 1, 10) }, registry);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        app.enableParallelUpdates(pool, 1_000);
+
+        try {
+            app.updateQuality();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Abaixo do limiar o laço roda na própria thread chamadora
+        assertSame(Thread.currentThread(), updatedOn[0]);
+    }
+
+    @Test
+    public void leafSizeDependsOnlyOnSizeAndParallelism() {
+        GildedRose app = new GildedRose(randomItems(1, 100_000));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            app.enableParallelUpdates(pool, 100_000);
+            int withLargeThreshold = app.leafSize();
+            app.enableParallelUpdates(pool, 10);
+
+            // Quatro fatias por thread, qualquer que seja o limiar
+            assertEquals(6_250, withLargeThreshold);
+            assertEquals(6_250, app.leafSize());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.randomItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class PartitionCoordinatorTest {
+    private final List<Thread> workerThreads = new ArrayList<>();
+
+    /**
+     * Workers na mesma JVM, cada um na sua thread, falando pelo mesmo
+     * protocolo TCP dos processos.
+     */
+    private List<InetSocketAddress> startWorkers(int count) throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int w = 0; w < count; w++) {
+            ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+            addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort()));
+            workerThreads.add(Thread.ofPlatform().daemon().start(() -> {
+                try (server) {
+                    new PartitionWorker().serve(server);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        return addresses;
+    }
+
+    /**
+     * Worker de mentira que guarda o que recebe e responde ERROR a todo
+     * ADVANCE.
+     */
+    private InetSocketAddress startFailingWorker() throws IOException {
+        ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        workerThreads.add(Thread.ofPlatform().daemon().start(() -> {
+            try (server; Socket socket = server.accept()) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                List<Item> items = new ArrayList<>();
+                while (true) {
+                    byte command = in.readByte();
+                    if (command == PartitionWorker.LOAD) {
+                        items.clear();
+                        while (in.readBoolean()) {
+                            items.add(new Item(in.readUTF(), in.readInt(), in.readInt()));
+                        }
+                        out.writeByte(PartitionWorker.OK);
+                    } else if (command == PartitionWorker.ADVANCE) {
+                        in.readInt();
+                        out.writeByte(PartitionWorker.ERROR);
+                        out.writeUTF("disk full");
+                    } else if (command == PartitionWorker.FETCH) {
+                        out.writeByte(PartitionWorker.OK);
+                        out.writeInt(items.size());
+                        for (Item item : items) {
+                            out.writeUTF(item.name);
+                            out.writeInt(item.sellIn);
+                            out.writeInt(item.quality);
+                        }
+                    } else {
+                        out.writeByte(PartitionWorker.OK);
+                        out.flush();
+                        return;
+                    }
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort());
+    }
+
+    /**
+     * Aceita a conexão e nunca responde.
+     */
+    private InetSocketAddress startSilentWorker() throws IOException {
+        ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        workerThreads.add(Thread.ofPlatform().daemon().start(() -> {
+            try (server; Socket socket = server.accept()) {
+                socket.getInputStream().transferTo(OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort());
+    }
+
+    @AfterEach
+    public void awaitWorkers() throws InterruptedException {
+        for (Thread thread : workerThreads) {
+            thread.join(5_000);
+        }
+    }
+
+    @Test
+    public void partitionedAdvanceMatchesSingleJvm() throws IOException {
+        Item[] expected = randomItems(13, 3_000);
+        Item[] items = randomItems(13, 3_000);
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(startWorkers(3))) {
+            coordinator.load(items);
+            PartitionStats afterTen = coordinator.advance(10);
+            coordinator.advance(20);
+            coordinator.fetchInto(items);
+            coordinator.shutdown();
+
+            GildedRose reference = new GildedRose(expected);
+            reference.advance(10);
+            PartitionStats expectedAfterTen = PartitionStats.of(expected);
+            assertEquals(expectedAfterTen.items(), afterTen.items());
+            assertEquals(expectedAfterTen.qualitySum(), afterTen.qualitySum());
+            assertEquals(expectedAfterTen.expired(), afterTen.expired());
+            assertEquals(expectedAfterTen.zeroQuality(), afterTen.zeroQuality());
+            reference.advance(20);
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].toString(), items[i].toString());
+        }
+    }
+
+    @Test
+    public void partitionsAreBalanced() throws IOException {
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(startWorkers(4))) {
+            int[] counts = new int[4];
+            for (int i = 0; i < 40_000; i++) {
+                counts[coordinator.partitionOf(i)]++;
+            }
+            for (int count : counts) {
+                assertTrue(Math.abs(count - 10_000) < 500, "partition size " + count);
+            }
+            coordinator.shutdown();
+        }
+    }
+
+    @Test
+    public void workerErrorsAreReported() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>(startWorkers(2));
+        addresses.add(1, startFailingWorker());
+        Item[] items = randomItems(1, 30);
+        Item[] original = randomItems(1, 30);
+        Item[] expected = randomItems(1, 30);
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(addresses)) {
+            coordinator.load(items);
+
+            IOException e = assertThrows(IOException.class, () -> coordinator.advance(1));
+            assertTrue(e.getMessage().contains("disk full"), e.getMessage());
+
+            // As respostas dos outros workers foram lidas: as sessões seguem alinhadas
+            coordinator.fetchInto(items);
+            coordinator.shutdown();
+
+            // Só a partição do worker que falhou ficou no dia anterior
+            new GildedRose(expected).advance(1);
+            for (int i = 0; i < items.length; i++) {
+                Item reference = coordinator.partitionOf(i) == 1 ? original[i] : expected[i];
+                assertEquals(reference.toString(), items[i].toString());
+            }
+        }
+    }
+
+    @Test
+    public void invalidCallsFailInTheCoordinator() throws IOException {
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(startWorkers(3))) {
+            assertThrows(IllegalStateException.class, () -> coordinator.fetchInto(new Item[0]));
+            assertThrows(IllegalArgumentException.class, () -> coordinator.advance(-1));
+
+            coordinator.load(randomItems(2, 10));
+            assertThrows(IllegalArgumentException.class, () -> coordinator.fetchInto(new Item[9]));
+            assertEquals(10, coordinator.advance(1).items());
+            coordinator.shutdown();
+        }
+    }
+
+    @Test
+    public void catalogsAreStreamedThroughTheWorkers() throws IOException {
+        Item[] expected = randomItems(21, 2_000);
+        StringBuilder catalog = new StringBuilder("OMGHAI!\n-------- day 0 --------\nname, sellIn, quality\n");
+        for (Item item : expected) {
+            catalog.append(ItemLineFormat.format(item)).append('\n');
+        }
+        StringWriter output = new StringWriter();
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(startWorkers(3))) {
+            long loaded = coordinator.load(PartitionCoordinator.ItemSource.fromText(
+                    new BufferedReader(new StringReader(catalog.toString()))));
+            coordinator.advance(7);
+            coordinator.fetch(PartitionCoordinator.ItemSink.toText(output));
+            coordinator.shutdown();
+
+            assertEquals(expected.length, loaded);
+        }
+        new GildedRose(expected).advance(7);
+        StringBuilder reference = new StringBuilder();
+        for (Item item : expected) {
+            reference.append(ItemLineFormat.format(item)).append('\n');
+        }
+        assertEquals(reference.toString(), output.toString());
+    }
+
+    @Test
+    public void oversizedNameAbortsTheSessionAndWorkersRecover() throws IOException {
+        List<InetSocketAddress> addresses = startWorkers(2);
+        Item[] items = randomItems(3, 10);
+        items[5].name = "x".repeat(70_000);
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(addresses)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> coordinator.load(items));
+            assertTrue(e.getMessage().contains("item 5"), e.getMessage());
+            assertThrows(IOException.class, () -> coordinator.advance(1));
+        }
+
+        // Os workers descartaram o LOAD pela metade e aceitam outro coordenador
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(addresses)) {
+            coordinator.load(randomItems(3, 10));
+            assertEquals(10, coordinator.advance(1).items());
+            coordinator.shutdown();
+        }
+    }
+
+    @Test
+    public void silentWorkerTimesOut() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>(startWorkers(1));
+        addresses.add(startSilentWorker());
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(addresses, Duration.ofSeconds(5),
+                Duration.ofMillis(200))) {
+            assertThrows(SocketTimeoutException.class, () -> coordinator.load(randomItems(4, 10)));
+            assertThrows(IOException.class, () -> coordinator.advance(1));
+        }
+        // O worker real perdeu a conexão e pode ser encerrado por outro coordenador
+        try (PartitionCoordinator coordinator = PartitionCoordinator.connect(addresses.subList(0, 1))) {
+            coordinator.shutdown();
+        }
+    }
+
+    @Test
+    public void workersRunInSeparateJvms() throws Exception {
+        List<Process> processes = List.of(PartitionCoordinator.startLocalWorker(),
+                PartitionCoordinator.startLocalWorker());
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            for (Process process : processes) {
+                addresses.add(PartitionCoordinator.addressOf(process));
+            }
+            Item[] expected = randomItems(8, 500);
+            Item[] items = randomItems(8, 500);
+            try (PartitionCoordinator coordinator = PartitionCoordinator.connect(addresses)) {
+                coordinator.load(items);
+                coordinator.advance(30);
+                coordinator.fetchInto(items);
+                coordinator.shutdown();
+            }
+            new GildedRose(expected).advance(30);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].toString(), items[i].toString());
+            }
+            for (Process process : processes) {
+                assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+                assertEquals(0, process.exitValue());
+            }
+        } finally {
+            processes.forEach(Process::destroy);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.gildedrose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ResolutionCacheTest {
+
+    @Test
+    public void repeatedNamesAreServedFromTheCache() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        registry.enableResolutionCache(100);
+        ResolutionCache cache = registry.resolutionCache();
+
+        assertEquals(ItemCategory.CONJURED, registry.categoryOf("Conjured Mana Cake"));
+        assertEquals(ItemCategory.CONJURED, registry.categoryOf("Conjured Mana Cake"));
+        assertEquals(ItemCategory.DEFAULT, registry.categoryOf("Elixir of the Mongoose"));
+
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedNameIsEvicted() {
+        ResolutionCache cache = new ResolutionCache(3);
+        cache.put("a", (short) 1, 0);
+        cache.put("b", (short) 2, 0);
+        cache.put("c", (short) 3, 0);
+        cache.get("a", 0);
+
+        cache.put("d", (short) 4, 0);
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictions());
+        assertEquals(-1, cache.get("b", 0));
+        assertEquals(1, cache.get("a", 0));
+        assertEquals(4, cache.get("d", 0));
+    }
+
+    @Test
+    public void sizeStaysBoundedAcrossSegments() {
+        ResolutionCache cache = new ResolutionCache(1_000);
+        for (int i = 0; i < 50_000; i++) {
+            cache.put("name " + i, (short) 0, 0);
+        }
+
+        assertEquals(1_000, cache.size());
+        assertEquals(49_000, cache.evictions());
+    }
+
+    @Test
+    public void registeringClearsCachedResolutions() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        registry.enableResolutionCache(100);
+        assertEquals(ItemCategory.DEFAULT, registry.categoryOf("Enchanted Shield"));
+
+        short shield = registry.registerExact("Enchanted Shield", new SulfurasUpdater());
+
+        assertEquals(0, registry.resolutionCache().size());
+        assertEquals(shield, registry.categoryOf("Enchanted Shield"));
+    }
+
+    @Test
+    public void resolutionsFromAnotherRegistryVersionAreIgnored() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        registry.enableResolutionCache(100);
+        ResolutionCache cache = registry.resolutionCache();
+        int before = registry.version();
+
+        short shield = registry.registerExact("Enchanted Shield", new SulfurasUpdater());
+        // Um put atrasado, resolvido antes do registro, chega depois do clear
+        cache.put("Enchanted Shield", ItemCategory.DEFAULT, before);
+
+        assertEquals(-1, cache.get("Enchanted Shield", registry.version()));
+        assertEquals(shield, registry.categoryOf("Enchanted Shield"));
+        assertEquals(shield, cache.get("Enchanted Shield", registry.version()));
+    }
+
+    @Test
+    public void concurrentResolutionsAgreeWithRules() throws Exception {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        registry.enableResolutionCache(64);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for (int i = 0; i < 20_000; i++) {
+                        int n = (i * 7 + offset) % 200;
+                        String name = n % 2 == 0 ? "Conjured #" + n : "Common #" + n;
+                        short expected = n % 2 == 0 ? ItemCategory.CONJURED : ItemCategory.DEFAULT;
+                        assertEquals(expected, registry.categoryOf(name));
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        ResolutionCache cache = registry.resolutionCache();
+        assertEquals(List.of(), failures);
+        assertTrue(cache.size() <= 64);
+        assertEquals(80_000, cache.hits() + cache.misses());
+        assertTrue(cache.evictions() > 0);
+    }
+}
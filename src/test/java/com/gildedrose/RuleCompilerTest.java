@@ -0,0 +1,137 @@
+package com.gildedrose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class RuleCompilerTest {
+
+    private static void assertSameRules(ItemUpdater expected, ItemUpdater actual) {
+        for (int sellIn = -3; sellIn <= 3; sellIn++) {
+            for (int quality = 0; quality <= 50; quality++) {
+                Item a = new Item("x", sellIn, quality);
+                Item b = new Item("x", sellIn, quality);
+                expected.update(a);
+                actual.update(b);
+                assertEquals(a.toString(), b.toString());
+            }
+        }
+    }
+
+    @Test
+    public void compiledRulesMatchHandWrittenUpdaters() {
+        assertSameRules(new DefaultUpdater(), RuleCompiler.compile(ItemRule.parse("prefix \"\"")));
+        assertSameRules(new ConjuredItemUpdater(), RuleCompiler.compile(ItemRule.parse("prefix \"Conjured\" delta=-2")));
+        assertSameRules(new AgedBrieUpdater(), RuleCompiler.compile(ItemRule.parse("exact \"Aged Brie\" delta=1")));
+        assertSameRules(new SulfurasUpdater(),
+                RuleCompiler.compile(ItemRule.parse("exact \"Sulfuras, Hand of Ragnaros\" delta=0 sellInStep=0")));
+    }
+
+    @Test
+    public void closedFormAdvanceMatchesDailyUpdates() {
+        String[] rules = {
+            "prefix \"\"",
+            "prefix \"\" delta=-2",
+            "prefix \"\" delta=1",
+            "prefix \"\" delta=+1 expiredMultiplier=1 max=40",
+            "prefix \"\" delta=3 expiredMultiplier=-1 min=5 max=30",
+            "prefix \"\" delta=-1 sellInStep=2",
+            "prefix \"\" delta=2 expiredMultiplier=-2 sellInStep=-1",
+            "prefix \"\" delta=-3 sellInStep=0",
+            "prefix \"\" delta=0 sellInStep=0"
+        };
+        for (String text : rules) {
+            ItemUpdater rule = RuleCompiler.compile(ItemRule.parse(text));
+            for (int sellIn = -6; sellIn <= 6; sellIn++) {
+                for (int quality : new int[] { 0, 3, 10, 29, 40, 50, 80 }) {
+                    Item daily = new Item("x", sellIn, quality);
+                    for (int days = 0; days <= 12; days++) {
+                        Item advanced = new Item("x", sellIn, quality);
+                        rule.advance(advanced, days);
+                        assertEquals(daily.toString(), advanced.toString(), text + " after " + days);
+                        rule.update(daily);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compiledRulesSettleLikeHandWrittenUpdaters() {
+        ItemUpdater[][] pairs = {
+            { new DefaultUpdater(), RuleCompiler.compile(ItemRule.parse("prefix \"\"")) },
+            { new ConjuredItemUpdater(), RuleCompiler.compile(ItemRule.parse("prefix \"Conjured\" delta=-2")) },
+            { new AgedBrieUpdater(), RuleCompiler.compile(ItemRule.parse("exact \"Aged Brie\" delta=1")) },
+            { new SulfurasUpdater(),
+                RuleCompiler.compile(ItemRule.parse("exact \"Sulfuras, Hand of Ragnaros\" delta=0 sellInStep=0")) }
+        };
+        for (ItemUpdater[] pair : pairs) {
+            for (int sellIn = -3; sellIn <= 3; sellIn++) {
+                for (int quality = 0; quality <= 50; quality++) {
+                    assertEquals(pair[0].isSettled(sellIn, quality), pair[1].isSettled(sellIn, quality));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void settledCompiledItemsNeverChange() {
+        ItemUpdater rule = RuleCompiler.compile(ItemRule.parse("exact \"Fine Wine\" delta=2 expiredMultiplier=-1"));
+
+        assertTrue(rule.isSettled(-1, 0));
+        assertFalse(rule.isSettled(0, 50));
+        assertFalse(rule.isSettled(5, 20));
+        Item wine = new Item("Fine Wine", 1, 50);
+        rule.advance(wine, 1_000_000);
+        assertEquals("Fine Wine, -999999, 0", wine.toString());
+        assertTrue(rule.isSettled(wine.sellIn, wine.quality));
+    }
+
+    @Test
+    public void eachRuleGetsItsOwnHiddenClass() {
+        ItemUpdater slow = RuleCompiler.compile(ItemRule.parse("exact \"a\" delta=-1"));
+        ItemUpdater fast = RuleCompiler.compile(ItemRule.parse("exact \"b\" delta=-3"));
+
+        assertTrue(slow.getClass().isHidden());
+        assertNotEquals(slow.getClass(), fast.getClass());
+        assertEquals(9, slow.updatedQuality(5, 10));
+        assertEquals(7, fast.updatedQuality(5, 10));
+    }
+
+    @Test
+    public void registeredRulesDriveGildedRose() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        short[] codes = RuleCompiler.registerAll("""
+                # regras dos mercadores
+                exact "Cursed Idol" delta=-3 expiredMultiplier=2
+                prefix "Fine Wine" delta=+1 expiredMultiplier=1 max=40
+                """, registry);
+        Item[] items = new Item[] {
+            new Item("Cursed Idol", 1, 20),
+            new Item("Fine Wine, 1990", 0, 39)
+        };
+        GildedRose app = new GildedRose(items, registry);
+
+        app.updateQuality();
+        app.updateQuality();
+
+        assertEquals(2, codes.length);
+        assertEquals(codes[0], registry.categoryOf("Cursed Idol"));
+        // -3 no prazo, -6 depois do vencimento
+        assertEquals("Cursed Idol, -1, 11", items[0].toString());
+        assertEquals("Fine Wine, 1990, -2, 40", items[1].toString());
+    }
+
+    @Test
+    public void malformedRulesReportTheLine() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ItemRule.parseAll("exact \"ok\"\nprefix \"x\" speed=3"));
+        assertTrue(e.getMessage().startsWith("Line 2: Unknown option"));
+        assertThrows(IllegalArgumentException.class, () -> ItemRule.parse("exact nope"));
+        assertThrows(IllegalArgumentException.class, () -> ItemRule.parse("exact \"x\" min=10 max=5"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.randomItems;
+import static com.gildedrose.TestItems.programItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class SimulationRunnerTest {
+    private static List<Item[]> scenarios(long seed, int count) {
+        Random random = new Random(seed);
+        List<Item[]> scenarios = new ArrayList<>();
+        for (int s = 0; s < count; s++) {
+            scenarios.add(randomItems(random, 1 + random.nextInt(40)));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Mesmos agregados calculados à mão, rodando GildedRose dia a dia.
+     */
+    private static SimulationResult expected(List<Item[]> scenarios, int days) {
+        SimulationResult result = new SimulationResult(days);
+        for (Item[] scenario : scenarios) {
+            Item[] items = new Item[scenario.length];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = new Item(scenario[i].name, scenario[i].sellIn, scenario[i].quality);
+                result.record(0, items[i].sellIn, items[i].sellIn, items[i].quality);
+            }
+            GildedRose app = new GildedRose(items);
+            for (int day = 1; day <= days; day++) {
+                int[] previous = new int[items.length];
+                for (int i = 0; i < items.length; i++) {
+                    previous[i] = items[i].sellIn;
+                }
+                app.updateQuality();
+                for (int i = 0; i < items.length; i++) {
+                    result.record(day, items[i].sellIn, previous[i], items[i].quality);
+                }
+            }
+            result.scenarioDone();
+        }
+        return result;
+    }
+
+    private static void assertSameResult(SimulationResult expected, SimulationResult actual) {
+        assertEquals(expected.scenarios(), actual.scenarios());
+        for (int day = 0; day <= expected.days(); day++) {
+            for (int q = 0; q <= SimulationResult.MAX_QUALITY; q++) {
+                assertEquals(expected.qualityCount(day, q), actual.qualityCount(day, q), "day " + day + " q " + q);
+            }
+            assertEquals(expected.aboveMaxQuality(day), actual.aboveMaxQuality(day));
+            assertEquals(expected.belowZeroQuality(day), actual.belowZeroQuality(day));
+            assertEquals(expected.expired(day), actual.expired(day));
+            assertEquals(expected.newlyExpired(day), actual.newlyExpired(day));
+            assertEquals(expected.meanQuality(day), actual.meanQuality(day), 1e-9);
+        }
+    }
+
+    @Test
+    public void aggregatesMatchDayByDayGildedRose() {
+        List<Item[]> scenarios = scenarios(7, 200);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SimulationResult result = new SimulationRunner().run(pool, scenarios, 30);
+
+            assertSameResult(expected(scenarios, 30), result);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void programInventoryThirtyDays() {
+        Item[] program = programItems();
+
+        SimulationResult result = new SimulationRunner().run(ForkJoinPool.commonPool(), List.of(program, program), 30);
+
+        assertEquals(2, result.scenarios());
+        assertEquals(18, result.items(30));
+        assertEquals(4, result.aboveMaxQuality(30));
+        // Dia 0: só o segundo Sulfuras está vencido
+        assertEquals(2, result.expired(0));
+        assertEquals(0, result.newlyExpired(0));
+        // Dia 3: Aged Brie vence (sellIn 2 → -1)
+        assertEquals(2, result.newlyExpired(3));
+        assertEquals(16, result.expired(30));
+        // Os itens não são alterados pela simulação
+        assertEquals("Aged Brie, 2, 0", program[1].toString());
+    }
+
+    @Test
+    public void scenariosCanBeGeneratedLazily() {
+        Random random = new Random(3);
+        Iterator<Item[]> generator = new Iterator<>() {
+            private int remaining = 1_000;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Item[] next() {
+                remaining--;
+                return randomItems(random, 10);
+            }
+        };
+
+        SimulationResult result = new SimulationRunner().run(ForkJoinPool.commonPool(), generator, 5);
+
+        assertEquals(1_000, result.scenarios());
+        assertEquals(10_000, result.items(5));
+    }
+
+    @Test
+    public void negativeDaysAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimulationRunner().run(ForkJoinPool.commonPool(), List.<Item[]>of(), -1));
+    }
+
+    @Test
+    public void qualitiesOutsideTheShopRangeKeepTheirOwnBuckets() {
+        SimulationResult result = new SimulationResult(0);
+        result.record(0, 1, 1, 50);
+        result.record(0, 1, 1, 80);
+        result.record(0, 1, 1, -3);
+        result.record(0, 1, 1, 0);
+
+        assertEquals(1, result.qualityCount(0, 50));
+        assertEquals(1, result.qualityCount(0, 0));
+        assertEquals(1, result.aboveMaxQuality(0));
+        assertEquals(1, result.belowZeroQuality(0));
+        assertThrows(IllegalArgumentException.class, () -> result.qualityCount(0, 80));
+        assertThrows(IllegalArgumentException.class, () -> result.qualityCount(0, -3));
+    }
+}
@@ -0,0 +1,95 @@
+package com.gildedrose;
+
+import static com.gildedrose.TestItems.programItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotInventoryTest {
+
+    @Test
+    public void snapshotsKeepTheirDayWhileUpdatesContinue() {
+        Item[] expected = programItems();
+        SnapshotInventory inventory = SnapshotInventory.fromItems(programItems(), new ItemNameDictionary(), 2);
+        InventorySnapshot dayZero = inventory.snapshot();
+
+        for (int day = 0; day < 10; day++) {
+            inventory.updateQuality();
+        }
+        new GildedRose(expected).advance(10);
+
+        Item[] original = programItems();
+        InventorySnapshot dayTen = inventory.snapshot();
+        assertEquals(0, dayZero.day());
+        assertEquals(10, dayTen.day());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(original[i].toString(), dayZero.item(i).toString());
+            assertEquals(expected[i].toString(), dayTen.item(i).toString());
+        }
+    }
+
+    @Test
+    public void unchangedChunksAreShared() {
+        Item[] items = new Item[] {
+            new Item("Sulfuras, Hand of Ragnaros", 0, 80),
+            new Item("Sulfuras, Hand of Ragnaros", -1, 80),
+            new Item("Aged Brie", 2, 0),
+            new Item("Sulfuras, Hand of Ragnaros", 3, 80)
+        };
+        SnapshotInventory inventory = SnapshotInventory.fromItems(items, new ItemNameDictionary(), 2);
+        InventorySnapshot before = inventory.snapshot();
+
+        inventory.updateQuality();
+
+        // O bloco só de Sulfuras não muda e não é copiado
+        assertEquals(1, inventory.snapshot().chunksSharedWith(before));
+    }
+
+    @Test
+    public void setCopiesOnlyTheAffectedChunk() {
+        SnapshotInventory inventory = SnapshotInventory.fromItems(programItems(), new ItemNameDictionary(), 3);
+        InventorySnapshot before = inventory.snapshot();
+
+        inventory.set(4, 7, 70);
+
+        InventorySnapshot after = inventory.snapshot();
+        assertEquals(2, after.chunksSharedWith(before));
+        assertEquals(-1, before.sellIn(4));
+        assertEquals("Sulfuras, Hand of Ragnaros, 7, 70", after.item(4).toString());
+    }
+
+    @Test
+    public void dailySellInDriftDoesNotCopyChunks() {
+        SnapshotInventory inventory = SnapshotInventory.fromItems(programItems(), new ItemNameDictionary(), 3);
+        InventorySnapshot before = inventory.snapshot();
+
+        inventory.updateQuality();
+
+        // Todos os sellIn andaram um dia, mas a coluna guarda sellIn + dia
+        InventorySnapshot after = inventory.snapshot();
+        assertEquals(3, after.sellInChunksSharedWith(before));
+        assertEquals(9, after.sellIn(0));
+        assertEquals(0, after.sellIn(3));
+    }
+
+    @Test
+    public void gildedRosePublishesSnapshotsOfItsItems() {
+        Item[] items = programItems();
+        GildedRose app = new GildedRose(items);
+        assertThrows(IllegalStateException.class, app::snapshot);
+        app.enableSnapshots();
+        InventorySnapshot dayZero = app.snapshot();
+
+        app.updateQuality();
+        app.items[2].name = "Conjured Mana Cake";
+        app.advance(4);
+
+        Item[] original = programItems();
+        InventorySnapshot dayFive = app.snapshot();
+        assertEquals(5, dayFive.day());
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(original[i].toString(), dayZero.item(i).toString());
+            assertEquals(items[i].toString(), dayFive.item(i).toString());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.gildedrose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class StreamingInventoryUpdaterTest {
+
+    @Test
+    public void parsesNamesContainingCommas() {
+        Item item = ItemLineFormat.parse("Sulfuras, Hand of Ragnaros, -1, 80");
+
+        assertEquals("Sulfuras, Hand of Ragnaros", item.name);
+        assertEquals(-1, item.sellIn);
+        assertEquals(80, item.quality);
+    }
+
+    @Test
+    public void rejectsMalformedLines() {
+        assertThrows(IllegalArgumentException.class, () -> ItemLineFormat.parse("Aged Brie, 2"));
+        assertThrows(IllegalArgumentException.class, () -> ItemLineFormat.parse("Aged Brie, two, 0"));
+    }
+
+    @Test
+    public void agesEveryItemAcrossChunkBoundaries() throws IOException {
+        String input = "name, sellIn, quality\n"
+                + "+5 Dexterity Vest, 10, 20\n"
+                + "Aged Brie, 2, 0\n"
+                + "\n"
+                + "Sulfuras, Hand of Ragnaros, -1, 80\n"
+                + "Backstage passes to a TAFKAL80ETC concert, 15, 20\n"
+                + "Conjured Mana Cake, 3, 6\n";
+        StringWriter output = new StringWriter();
+
+        long processed = new StreamingInventoryUpdater(2, UpdaterRegistry.withDefaults())
+                .process(new StringReader(input), output, 5);
+
+        assertEquals(5, processed);
+        assertEquals("+5 Dexterity Vest, 5, 15\n"
+                + "Aged Brie, -3, 8\n"
+                + "Sulfuras, Hand of Ragnaros, -1, 80\n"
+                + "Backstage passes to a TAFKAL80ETC concert, 10, 25\n"
+                + "Conjured Mana Cake, -2, 0\n", output.toString());
+    }
+
+    @Test
+    public void processesFiles() throws IOException {
+        Path input = Files.createTempFile("inventory", ".txt");
+        Path output = Files.createTempFile("inventory", ".out");
+        try {
+            Files.write(input, Arrays.asList("Aged Brie, 2, 0", "Elixir of the Mongoose, 5, 7"), StandardCharsets.UTF_8);
+
+            new StreamingInventoryUpdater().process(input, output, 1);
+
+            List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+            assertEquals(Arrays.asList("Aged Brie, 1, 1", "Elixir of the Mongoose, 4, 6"), lines);
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    public void recognisesProgramReportLines() {
+        assertTrue(ItemLineFormat.isReportLine(""));
+        assertTrue(ItemLineFormat.isReportLine("OMGHAI!"));
+        assertTrue(ItemLineFormat.isReportLine("-------- day 0 --------"));
+        assertTrue(ItemLineFormat.isReportLine("-------- day 30 --------"));
+        assertTrue(ItemLineFormat.isReportLine("name, sellIn, quality"));
+        assertFalse(ItemLineFormat.isReportLine("-------- day x --------"));
+        assertFalse(ItemLineFormat.isReportLine("Aged Brie, 2, 0"));
+    }
+
+    @Test
+    public void readsProgramOutputDirectly() throws IOException {
+        PrintStream original = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(captured));
+            Program.main();
+        } finally {
+            System.setOut(original);
+        }
+        StringWriter output = new StringWriter();
+
+        long processed = new StreamingInventoryUpdater(4, UpdaterRegistry.withDefaults())
+                .process(new StringReader(captured.toString()), output, 1);
+
+        // 31 dias de 9 itens; o primeiro é o Vest do dia 0 envelhecido um dia
+        assertEquals(31 * 9, processed);
+        assertTrue(output.toString().startsWith("+5 Dexterity Vest, 9, 19\nAged Brie, 1, 1\n"));
+    }
+
+    @Test
+    public void repeatedNamesAreResolvedOncePerChunk() throws IOException {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        // O cache conta as consultas ao registry: uma por nome distinto de cada bloco
+        registry.enableResolutionCache(16);
+        StringWriter output = new StringWriter();
+
+        new StreamingInventoryUpdater(2, registry).process(
+                new StringReader("Aged Brie, 2, 0\nAged Brie, 3, 1\nAged Brie, 4, 2\nElixir, 1, 1\n"), output, 1);
+
+        ResolutionCache cache = registry.resolutionCache();
+        assertEquals(3, cache.hits() + cache.misses());
+        // Entre blocos o nome repetido vem do cache, sem reavaliar as regras
+        assertEquals(2, cache.misses());
+        assertEquals("Aged Brie, 3, 3", output.toString().split("\n")[2]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.gildedrose;
+
+import java.util.Random;
+
+/**
+ * Itens de teste compartilhados: o inventário do programa de exemplo e
+ * inventários aleatórios com semente fixa.
+ */
+final class TestItems {
+    static final String[] NAMES = {
+        "+5 Dexterity Vest",
+        "Aged Brie",
+        "Elixir of the Mongoose",
+        "Sulfuras, Hand of Ragnaros",
+        "Backstage passes to a TAFKAL80ETC concert",
+        "Conjured Mana Cake"
+    };
+
+    private TestItems() {
+    }
+
+    /**
+     * Os itens de Program, sempre em instâncias novas.
+     */
+    static Item[] programItems() {
+        return new Item[] {
+            new Item("+5 Dexterity Vest", 10, 20),
+            new Item("Aged Brie", 2, 0),
+            new Item("Elixir of the Mongoose", 5, 7),
+            new Item("Sulfuras, Hand of Ragnaros", 0, 80),
+            new Item("Sulfuras, Hand of Ragnaros", -1, 80),
+            new Item("Backstage passes to a TAFKAL80ETC concert", 15, 20),
+            new Item("Backstage passes to a TAFKAL80ETC concert", 10, 49),
+            new Item("Backstage passes to a TAFKAL80ETC concert", 5, 49),
+            new Item("Conjured Mana Cake", 3, 6)
+        };
+    }
+
+    /**
+     * Mesma semente, mesmos itens: chamadas repetidas dão cópias
+     * independentes do mesmo inventário.
+     */
+    static Item[] randomItems(long seed, int count) {
+        return randomItems(new Random(seed), count);
+    }
+
+    static Item[] randomItems(Random random, int count) {
+        return randomItems(random, count, NAMES, 0, 50);
+    }
+
+    /**
+     * sellIn entre -5 e 24, cobrindo vencidos e as faixas dos Backstage
+     * passes; qualidade entre {@code minQuality} e {@code maxQuality}, exceto
+     * Sulfuras, sempre 80.
+     */
+    static Item[] randomItems(Random random, int count, String[] names, int minQuality, int maxQuality) {
+        Item[] items = new Item[count];
+        for (int i = 0; i < count; i++) {
+            String name = names[random.nextInt(names.length)];
+            int quality = name.startsWith("Sulfuras") ? 80 : minQuality + random.nextInt(maxQuality - minQuality + 1);
+            items[i] = new Item(name, random.nextInt(30) - 5, quality);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,159 @@
+package com.gildedrose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+public class UpdateMetricsTest {
+
+    @Test
+    public void countsItemsLimitsReachedAndExpiredPerCategory() {
+        Item[] items = new Item[] {
+            new Item("+5 Dexterity Vest", 0, 1),
+            new Item("Elixir of the Mongoose", 5, 7),
+            new Item("Aged Brie", 2, 49),
+            new Item("Sulfuras, Hand of Ragnaros", -1, 80),
+            new Item("Backstage passes to a TAFKAL80ETC concert", 0, 20)
+        };
+        GildedRose app = new GildedRose(items);
+        UpdateMetrics metrics = new UpdateMetrics();
+        app.enableMetrics(metrics);
+
+        app.updateQuality();
+
+        assertEquals(2, metrics.itemsUpdated(ItemCategory.DEFAULT));
+        // Vest vence e vai a 0; Elixir não chega a limite
+        assertEquals(1, metrics.limitsReached(ItemCategory.DEFAULT));
+        assertEquals(1, metrics.expired(ItemCategory.DEFAULT));
+        assertEquals(1, metrics.limitsReached(ItemCategory.AGED_BRIE));
+        assertEquals(0, metrics.limitsReached(ItemCategory.SULFURAS));
+        assertEquals(1, metrics.expired(ItemCategory.SULFURAS));
+        assertEquals(1, metrics.limitsReached(ItemCategory.BACKSTAGE_PASS));
+        assertEquals(5, metrics.resolutions());
+        assertEquals(1, metrics.runs());
+    }
+
+    @Test
+    public void itemsRestingAtALimitAreNotCountedAgain() {
+        GildedRose app = new GildedRose(new Item[] {
+            new Item("Elixir of the Mongoose", 5, 1),
+            new Item("Aged Brie", 5, 50)
+        });
+        UpdateMetrics metrics = new UpdateMetrics();
+        app.enableMetrics(metrics);
+
+        for (int day = 0; day < 3; day++) {
+            app.updateQuality();
+        }
+
+        // O Elixir chega a 0 no primeiro dia e fica lá; a Brie já começou em 50
+        assertEquals(1, metrics.limitsReached(ItemCategory.DEFAULT));
+        assertEquals(0, metrics.limitsReached(ItemCategory.AGED_BRIE));
+    }
+
+    @Test
+    public void advanceAndGroupedRunsAreMeasured() {
+        GildedRose app = new GildedRose(new Item[] {
+            new Item("Elixir of the Mongoose", 5, 2),
+            new Item("Aged Brie", 2, 48)
+        });
+        UpdateMetrics metrics = new UpdateMetrics();
+        app.enableMetrics(metrics);
+
+        app.advance(4);
+        app.updateQualityByCategory();
+
+        assertEquals(2, metrics.runs());
+        assertEquals(2, metrics.itemsUpdated(ItemCategory.DEFAULT));
+        assertEquals(2, metrics.itemsUpdated(ItemCategory.AGED_BRIE));
+        assertEquals(1, metrics.limitsReached(ItemCategory.DEFAULT));
+        assertEquals(1, metrics.limitsReached(ItemCategory.AGED_BRIE));
+        assertEquals(2, metrics.resolutions());
+    }
+
+    @Test
+    public void resolutionsAreCountedOnlyOnce() {
+        GildedRose app = new GildedRose(new Item[] { new Item("Aged Brie", 2, 0) });
+        UpdateMetrics metrics = new UpdateMetrics();
+        app.enableMetrics(metrics);
+
+        app.updateQuality();
+        app.updateQuality();
+        app.items[0].name = "Conjured Mana Cake";
+        app.updateQuality();
+
+        assertEquals(2, metrics.resolutions());
+        assertEquals(3, metrics.runs());
+        assertEquals(2, metrics.itemsUpdated(ItemCategory.AGED_BRIE));
+        assertEquals(1, metrics.itemsUpdated(ItemCategory.CONJURED));
+    }
+
+    @Test
+    public void disablingStopsCounting() {
+        GildedRose app = new GildedRose(new Item[] { new Item("Aged Brie", 2, 0) });
+        UpdateMetrics metrics = new UpdateMetrics();
+        app.enableMetrics(metrics);
+        app.updateQuality();
+
+        app.disableMetrics();
+        app.updateQuality();
+
+        assertEquals(1, metrics.runs());
+        assertEquals(1, metrics.itemsUpdated(ItemCategory.AGED_BRIE));
+        assertEquals(2, app.items[0].quality);
+    }
+
+    @Test
+    public void parallelRunsSumAllSlices() {
+        Item[] items = new Item[1_000];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Item(i % 2 == 0 ? "Aged Brie" : "Elixir of the Mongoose", 5, 10);
+        }
+        GildedRose app = new GildedRose(items);
+        app.enableParallelUpdates(ForkJoinPool.commonPool(), 100);
+        UpdateMetrics metrics = new UpdateMetrics();
+        app.enableMetrics(metrics);
+
+        app.updateQuality();
+
+        assertEquals(500, metrics.itemsUpdated(ItemCategory.AGED_BRIE));
+        assertEquals(500, metrics.itemsUpdated(ItemCategory.DEFAULT));
+    }
+
+    @Test
+    public void emitsJfrEventPerRun() throws Exception {
+        GildedRose app = new GildedRose(new Item[] {
+            new Item("Aged Brie", 2, 0),
+            new Item("Conjured Mana Cake", 3, 6)
+        });
+        app.enableMetrics(new UpdateMetrics());
+        Path file = Files.createTempFile("gildedrose", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.gildedrose.UpdateQuality");
+            recording.start();
+            app.updateQuality();
+            app.updateQuality();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(2, events.size());
+            assertEquals(2, events.get(0).getInt("items"));
+            assertEquals(1, events.get(0).getInt("days"));
+            assertEquals(2, events.get(0).getLong("resolutions"));
+            assertEquals(0, events.get(1).getLong("resolutions"));
+            assertTrue(!events.get(1).getBoolean("parallel"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.gildedrose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+public class UpdaterRegistryTest {
+
+    @Test
+    public void defaultCategoriesFollowOriginalPrecedence() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+
+        assertEquals(ItemCategory.AGED_BRIE, registry.categoryOf("Aged Brie"));
+        assertEquals(ItemCategory.SULFURAS, registry.categoryOf("Sulfuras, Hand of Ragnaros"));
+        assertEquals(ItemCategory.BACKSTAGE_PASS, registry.categoryOf("Backstage passes to a TAFKAL80ETC concert"));
+        assertEquals(ItemCategory.CONJURED, registry.categoryOf("Conjured Mana Cake"));
+        assertEquals(ItemCategory.DEFAULT, registry.categoryOf("Conjure"));
+        assertEquals(ItemCategory.DEFAULT, registry.categoryOf("+5 Dexterity Vest"));
+    }
+
+    @Test
+    public void registeredUpdaterIsUsedWithoutTouchingGildedRose() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        ItemUpdater sulfuras = registry.updaterFor(ItemCategory.SULFURAS);
+        short category = registry.registerExact("Enchanted Shield", sulfuras);
+        Item[] items = new Item[] { new Item("Enchanted Shield", 5, 30) };
+        GildedRose app = new GildedRose(items, registry);
+
+        app.updateQuality();
+
+        assertSame(sulfuras, registry.updaterFor(category));
+        assertEquals(5, items[0].sellIn);
+        assertEquals(30, items[0].quality);
+    }
+
+    @Test
+    public void renamedItemIsResolvedAgain() {
+        Item[] items = new Item[] { new Item("Aged Brie", 5, 10) };
+        GildedRose app = new GildedRose(items);
+
+        app.updateQuality();
+        assertEquals(11, items[0].quality);
+
+        // Mesmo item, novo nome: a categoria em cache deve ser descartada
+        items[0].name = "Elixir of the Mongoose";
+        app.updateQuality();
+        assertEquals(3, items[0].sellIn);
+        assertEquals(10, items[0].quality);
+    }
+
+    @Test
+    public void earliestRegisteredRuleWinsBetweenExactAndPrefix() {
+        UpdaterRegistry registry = new UpdaterRegistry();
+        short conjured = registry.registerPrefix("Conjured", new ConjuredItemUpdater());
+        short cake = registry.registerExact("Conjured Mana Cake", new DefaultUpdater());
+        short conjuredMana = registry.registerPrefix("Conjured Mana", new DefaultUpdater());
+        short brie = registry.registerExact("Aged Brie", new AgedBrieUpdater());
+        short aged = registry.registerPrefix("Aged", new DefaultUpdater());
+        short fallback = registry.registerFallback(new DefaultUpdater());
+
+        // O prefixo mais curto foi registrado antes, então vence
+        assertEquals(conjured, registry.categoryOf("Conjured Mana Cake"));
+        assertEquals(conjured, registry.categoryOf("Conjured Mana Potion"));
+        assertEquals(brie, registry.categoryOf("Aged Brie"));
+        assertEquals(aged, registry.categoryOf("Aged Wine"));
+        assertEquals(fallback, registry.categoryOf("Conjure"));
+        assertEquals(fallback, registry.categoryOf(""));
+        assertEquals(6, registry.categoryCount());
+        assertEquals(cake + 1, conjuredMana);
+    }
+
+    @Test
+    public void emptyPrefixMatchesEveryName() {
+        UpdaterRegistry registry = new UpdaterRegistry();
+        short sulfuras = registry.registerExact("Sulfuras, Hand of Ragnaros", new SulfurasUpdater());
+        short everything = registry.registerPrefix("", new DefaultUpdater());
+
+        assertEquals(sulfuras, registry.categoryOf("Sulfuras, Hand of Ragnaros"));
+        assertEquals(everything, registry.categoryOf("Sulfuras"));
+        assertEquals(everything, registry.categoryOf(""));
+    }
+
+    @Test
+    public void largeRuleSetsKeepRegistrationPrecedence() {
+        UpdaterRegistry registry = new UpdaterRegistry();
+        short[] codes = new short[600];
+        for (int i = 0; i < 300; i++) {
+            codes[2 * i] = registry.registerPrefix("Item " + i + " ", new DefaultUpdater());
+            codes[2 * i + 1] = registry.registerExact("Item " + i + " exact", new DefaultUpdater());
+        }
+        short fallback = registry.registerFallback(new DefaultUpdater());
+
+        for (int i = 0; i < 300; i++) {
+            assertEquals(codes[2 * i], registry.categoryOf("Item " + i + " exact"));
+            assertEquals(codes[2 * i], registry.categoryOf("Item " + i + " anything"));
+        }
+        assertEquals(fallback, registry.categoryOf("Item 7"));
+    }
+}
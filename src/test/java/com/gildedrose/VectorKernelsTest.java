@@ -0,0 +1,94 @@
+package com.gildedrose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+public class VectorKernelsTest {
+
+    private static final String[] NAMES = Stream.concat(Arrays.stream(TestItems.NAMES), Stream.of("Enchanted Shield"))
+            .toArray(String[]::new);
+
+    /**
+     * Inclui qualidades fora de 0..50, que os kernels precisam preservar.
+     */
+    private static Item[] randomItems(long seed, int count) {
+        return TestItems.randomItems(new Random(seed), count, NAMES, -5, 55);
+    }
+
+    private static UpdaterRegistry registryWithCustomCategory() {
+        UpdaterRegistry registry = UpdaterRegistry.withDefaults();
+        // Categoria fora da loja: deve cair no caminho escalar dentro do kernel
+        registry.registerExact("Enchanted Shield", new ConjuredItemUpdater());
+        return registry;
+    }
+
+    @Test
+    public void vectorAndScalarKernelsProduceIdenticalColumns() {
+        assumeTrue(ColumnarInventory.vectorKernelsAvailable());
+
+        // 1001 linhas: vários vetores completos e um resto escalar
+        Item[] items = randomItems(99, 1_001);
+        ColumnarInventory scalar = ColumnarInventory.fromItems(items, registryWithCustomCategory());
+        ColumnarInventory vector = ColumnarInventory.fromItems(items, registryWithCustomCategory());
+
+        for (int day = 0; day < 60; day++) {
+            scalar.updateQualityScalar();
+            vector.updateQualityVectorized();
+
+            for (int i = 0; i < items.length; i++) {
+                assertEquals(scalar.sellIn(i), vector.sellIn(i), "sellIn of row " + i + " on day " + day);
+                assertEquals(scalar.quality(i), vector.quality(i), "quality of row " + i + " on day " + day);
+            }
+        }
+    }
+
+    @Test
+    public void vectorKernelsMatchGildedRose() {
+        assumeTrue(ColumnarInventory.vectorKernelsAvailable());
+
+        Item[] expected = randomItems(5, 64);
+        ColumnarInventory vector = ColumnarInventory.fromItems(expected);
+        GildedRose app = new GildedRose(expected);
+
+        for (int day = 0; day < 30; day++) {
+            app.updateQuality();
+            vector.updateQualityVectorized();
+        }
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].sellIn, vector.sellIn(i));
+            assertEquals(expected[i].quality, vector.quality(i));
+        }
+    }
+
+    @Test
+    public void laneMasksFollowTheRegistryNotTheCategoryNumbers() {
+        assumeTrue(ColumnarInventory.vectorKernelsAvailable());
+
+        // Só o fallback: o DefaultUpdater recebe o código 0, o mesmo da Aged Brie na loja
+        UpdaterRegistry registry = new UpdaterRegistry();
+        registry.registerFallback(new DefaultUpdater());
+        registry.registerExact("Shiny Brie", new AgedBrieUpdater());
+        Item[] expected = new Item[16];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = new Item(i % 3 == 0 ? "Shiny Brie" : "Elixir", 10, 20);
+        }
+        ColumnarInventory vector = ColumnarInventory.fromItems(expected, registry);
+        GildedRose app = new GildedRose(expected, registry);
+
+        app.updateQuality();
+        vector.updateQualityVectorized();
+
+        assertEquals(9, vector.sellIn(1));
+        assertEquals(19, vector.quality(1));
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].sellIn, vector.sellIn(i), "sellIn of row " + i);
+            assertEquals(expected[i].quality, vector.quality(i), "quality of row " + i);
+        }
+    }
+}